@@ -0,0 +1,23 @@
+package com.openshop.events;
+
+import java.util.UUID;
+
+/**
+ * Fields shared by every saga event. Implemented through the Lombok-generated accessors.
+ */
+public interface SagaEvent {
+
+    UUID getOrderId();
+
+    void setOrderId(UUID orderId);
+
+    Long getUserId();
+
+    String getCorrelationId();
+
+    void setCorrelationId(String correlationId);
+
+    Long getTimestamp();
+
+    void setTimestamp(Long timestamp);
+}
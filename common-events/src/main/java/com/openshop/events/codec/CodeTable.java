@@ -0,0 +1,76 @@
+package com.openshop.events.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the well-known values of a free-form string field (status, reason, ...) to small integer codes.
+ * <p>
+ * Code {@code 0} means {@code null}, code {@code 1} means the literal string follows, and
+ * known values start at {@code 2}. Tables are append-only; reordering or removing a value is never
+ * allowed. A reader fails on a code it does not know, so a new value is rolled out in two releases:
+ * first append it after the table's written codes, where it is decoded but still written as a
+ * literal, then, once every consumer runs that release, raise the written code count to include it.
+ */
+public final class CodeTable {
+
+    private static final int NULL_CODE = 0;
+    private static final int LITERAL_CODE = 1;
+    private static final int FIRST_KNOWN_CODE = 2;
+
+    public static final CodeTable STATUS = new CodeTable(2, "SUCCESS", "FAILED");
+
+    public static final CodeTable REASON = new CodeTable(4,
+            "INVENTORY_FAILED", "SHIPPING_FAILED", "ORDER_CANCELLED", "PAYMENT_FAILED");
+
+    public static final CodeTable NOTIFICATION_TYPE = new CodeTable(3,
+            "ORDER_CONFIRMED", "ORDER_SHIPPED", "ORDER_CANCELLED");
+
+    public static final CodeTable ORDER_STATUS = new CodeTable(6,
+            "PENDING", "CONFIRMED", "SHIPPED", "DELIVERED", "CANCELLED", "FAILED");
+
+    private final List<String> values;
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    /**
+     * @param writtenCodes how many leading values are written as codes; later ones are only decoded
+     */
+    CodeTable(int writtenCodes, String... values) {
+        this.values = List.of(values);
+        for (int i = 0; i < writtenCodes; i++) {
+            codes.put(values[i], FIRST_KNOWN_CODE + i);
+        }
+    }
+
+    public void write(EventWriter out, String value) {
+        if (value == null) {
+            out.writeVarInt(NULL_CODE);
+            return;
+        }
+        Integer code = codes.get(value);
+        if (code != null) {
+            out.writeVarInt(code);
+        } else {
+            out.writeVarInt(LITERAL_CODE);
+            out.writeString(value);
+        }
+    }
+
+    public String read(EventReader in) {
+        int code = in.readVarInt();
+        if (code == NULL_CODE) {
+            return null;
+        }
+        if (code == LITERAL_CODE) {
+            return in.readString();
+        }
+        int index = code - FIRST_KNOWN_CODE;
+        if (index < 0 || index >= values.size()) {
+            throw new SerializationException("Unknown code " + code + " in code table " + values);
+        }
+        return values.get(index);
+    }
+}
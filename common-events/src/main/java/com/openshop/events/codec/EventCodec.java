@@ -0,0 +1,49 @@
+package com.openshop.events.codec;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Binary encoder/decoder for a single event class.
+ *
+ * @param <T> the event type
+ */
+public interface EventCodec<T> {
+
+    /**
+     * Stable identifier written into every frame. Never reuse an id for a different event class.
+     */
+    int typeId();
+
+    Class<T> eventType();
+
+    void encode(T event, EventWriter out);
+
+    T decode(EventReader in);
+
+    static <T> EventCodec<T> of(int typeId, Class<T> eventType,
+                                BiConsumer<T, EventWriter> encoder,
+                                Function<EventReader, T> decoder) {
+        return new EventCodec<>() {
+            @Override
+            public int typeId() {
+                return typeId;
+            }
+
+            @Override
+            public Class<T> eventType() {
+                return eventType;
+            }
+
+            @Override
+            public void encode(T event, EventWriter out) {
+                encoder.accept(event, out);
+            }
+
+            @Override
+            public T decode(EventReader in) {
+                return decoder.apply(in);
+            }
+        };
+    }
+}
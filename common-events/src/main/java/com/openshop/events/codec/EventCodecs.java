@@ -0,0 +1,412 @@
+package com.openshop.events.codec;
+
+import com.openshop.events.inventory.InventoryReserveBatchResponseEvent;
+import com.openshop.events.inventory.InventoryReserveResponseEvent;
+import com.openshop.events.inventory.InventoryRestoreRequestEvent;
+import com.openshop.events.order.OrderInventoryReserveBatchRequestEvent;
+import com.openshop.events.order.OrderInventoryReserveRequestEvent;
+import com.openshop.events.order.OrderNotificationBatchEvent;
+import com.openshop.events.order.OrderNotificationRequestEvent;
+import com.openshop.events.order.OrderPaymentRequestEvent;
+import com.openshop.events.order.OrderShippingRequestEvent;
+import com.openshop.events.payment.PaymentRefundRequestEvent;
+import com.openshop.events.payment.PaymentResponseEvent;
+import com.openshop.events.shipping.ShippingCancelRequestEvent;
+import com.openshop.events.shipping.ShippingResponseEvent;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Registry of the binary codecs for every event in {@code com.openshop.events}.
+ * <p>
+ * Frame layout: {@code MAGIC | schema version | type id (varint) | body}. Fields are written in
+ * declaration order; new fields may only be appended, and readers ignore trailing bytes so an
+ * older consumer can still decode frames written by a newer schema version. New {@link CodeTable}
+ * values stay readable for older consumers because they are written as literals until every
+ * consumer knows them.
+ */
+public final class EventCodecs {
+
+    /** First byte of every binary frame. Chosen so it can never be confused with a JSON document. */
+    public static final byte MAGIC = (byte) 0xC5;
+
+    public static final int SCHEMA_VERSION = 1;
+
+    private static final Map<Class<?>, EventCodec<?>> BY_TYPE = new ConcurrentHashMap<>();
+    private static final Map<Integer, EventCodec<?>> BY_ID = new ConcurrentHashMap<>();
+    private static final Map<String, Class<?>> BY_NAME = new ConcurrentHashMap<>();
+
+    static {
+        register(EventCodec.of(1, OrderPaymentRequestEvent.class, (e, out) -> {
+            out.writeUuid(e.getOrderId());
+            out.writeNullableLong(e.getUserId());
+            out.writeMoney(e.getAmount());
+            out.writeString(e.getCorrelationId());
+            out.writeNullableLong(e.getTimestamp());
+        }, in -> OrderPaymentRequestEvent.builder()
+                .orderId(in.readUuid())
+                .userId(in.readNullableLong())
+                .amount(in.readMoney())
+                .correlationId(in.readString())
+                .timestamp(in.readNullableLong())
+                .build()));
+
+        register(EventCodec.of(2, PaymentResponseEvent.class, (e, out) -> {
+            out.writeUuid(e.getOrderId());
+            out.writeNullableLong(e.getUserId());
+            out.writeString(e.getTransactionId());
+            CodeTable.STATUS.write(out, e.getStatus());
+            out.writeMoney(e.getAmount());
+            out.writeString(e.getPaymentMethod());
+            out.writeString(e.getFailureReason());
+            out.writeString(e.getCorrelationId());
+            out.writeNullableLong(e.getTimestamp());
+        }, in -> PaymentResponseEvent.builder()
+                .orderId(in.readUuid())
+                .userId(in.readNullableLong())
+                .transactionId(in.readString())
+                .status(CodeTable.STATUS.read(in))
+                .amount(in.readMoney())
+                .paymentMethod(in.readString())
+                .failureReason(in.readString())
+                .correlationId(in.readString())
+                .timestamp(in.readNullableLong())
+                .build()));
+
+        register(EventCodec.of(3, PaymentRefundRequestEvent.class, (e, out) -> {
+            out.writeUuid(e.getOrderId());
+            out.writeNullableLong(e.getUserId());
+            out.writeString(e.getTransactionId());
+            out.writeMoney(e.getAmount());
+            CodeTable.REASON.write(out, e.getReason());
+            out.writeString(e.getCorrelationId());
+            out.writeNullableLong(e.getTimestamp());
+        }, in -> PaymentRefundRequestEvent.builder()
+                .orderId(in.readUuid())
+                .userId(in.readNullableLong())
+                .transactionId(in.readString())
+                .amount(in.readMoney())
+                .reason(CodeTable.REASON.read(in))
+                .correlationId(in.readString())
+                .timestamp(in.readNullableLong())
+                .build()));
+
+        register(EventCodec.of(4, OrderInventoryReserveRequestEvent.class, (e, out) -> {
+            out.writeUuid(e.getOrderId());
+            out.writeNullableLong(e.getUserId());
+            writeList(out, e.getItems(), (item, o) -> {
+                o.writeUuid(item.getProductId());
+                o.writeNullableInt(item.getQuantity());
+            });
+            out.writeString(e.getCorrelationId());
+            out.writeNullableLong(e.getTimestamp());
+        }, in -> OrderInventoryReserveRequestEvent.builder()
+                .orderId(in.readUuid())
+                .userId(in.readNullableLong())
+                .items(readList(in, i -> OrderInventoryReserveRequestEvent.InventoryItem.builder()
+                        .productId(i.readUuid())
+                        .quantity(i.readNullableInt())
+                        .build()))
+                .correlationId(in.readString())
+                .timestamp(in.readNullableLong())
+                .build()));
+
+        register(EventCodec.of(5, InventoryReserveResponseEvent.class, (e, out) -> {
+            out.writeUuid(e.getOrderId());
+            out.writeNullableLong(e.getUserId());
+            CodeTable.STATUS.write(out, e.getStatus());
+            out.writeString(e.getFailureReason());
+            writeList(out, e.getReservedItems(), (item, o) -> {
+                o.writeUuid(item.getProductId());
+                o.writeNullableInt(item.getQuantity());
+                o.writeBoolean(item.isReserved());
+            });
+            out.writeString(e.getCorrelationId());
+            out.writeNullableLong(e.getTimestamp());
+        }, in -> InventoryReserveResponseEvent.builder()
+                .orderId(in.readUuid())
+                .userId(in.readNullableLong())
+                .status(CodeTable.STATUS.read(in))
+                .failureReason(in.readString())
+                .reservedItems(readList(in, i -> InventoryReserveResponseEvent.ReservedItem.builder()
+                        .productId(i.readUuid())
+                        .quantity(i.readNullableInt())
+                        .reserved(i.readBoolean())
+                        .build()))
+                .correlationId(in.readString())
+                .timestamp(in.readNullableLong())
+                .build()));
+
+        register(EventCodec.of(6, InventoryRestoreRequestEvent.class, (e, out) -> {
+            out.writeUuid(e.getOrderId());
+            out.writeNullableLong(e.getUserId());
+            writeList(out, e.getItems(), (item, o) -> {
+                o.writeUuid(item.getProductId());
+                o.writeNullableInt(item.getQuantity());
+            });
+            CodeTable.REASON.write(out, e.getReason());
+            out.writeString(e.getCorrelationId());
+            out.writeNullableLong(e.getTimestamp());
+        }, in -> InventoryRestoreRequestEvent.builder()
+                .orderId(in.readUuid())
+                .userId(in.readNullableLong())
+                .items(readList(in, i -> InventoryRestoreRequestEvent.RestoreItem.builder()
+                        .productId(i.readUuid())
+                        .quantity(i.readNullableInt())
+                        .build()))
+                .reason(CodeTable.REASON.read(in))
+                .correlationId(in.readString())
+                .timestamp(in.readNullableLong())
+                .build()));
+
+        register(EventCodec.of(7, OrderShippingRequestEvent.class, (e, out) -> {
+            out.writeUuid(e.getOrderId());
+            out.writeNullableLong(e.getUserId());
+            out.writeString(e.getShippingAddress());
+            out.writeString(e.getCity());
+            out.writeString(e.getState());
+            out.writeString(e.getZipCode());
+            out.writeString(e.getCountry());
+            out.writeString(e.getPhoneNumber());
+            out.writeMoney(e.getOrderAmount());
+            out.writeString(e.getCorrelationId());
+            out.writeNullableLong(e.getTimestamp());
+        }, in -> OrderShippingRequestEvent.builder()
+                .orderId(in.readUuid())
+                .userId(in.readNullableLong())
+                .shippingAddress(in.readString())
+                .city(in.readString())
+                .state(in.readString())
+                .zipCode(in.readString())
+                .country(in.readString())
+                .phoneNumber(in.readString())
+                .orderAmount(in.readMoney())
+                .correlationId(in.readString())
+                .timestamp(in.readNullableLong())
+                .build()));
+
+        register(EventCodec.of(8, ShippingResponseEvent.class, (e, out) -> {
+            out.writeUuid(e.getOrderId());
+            out.writeNullableLong(e.getUserId());
+            out.writeUuid(e.getShipmentId());
+            CodeTable.STATUS.write(out, e.getStatus());
+            out.writeString(e.getTrackingNumber());
+            out.writeString(e.getCarrier());
+            out.writeString(e.getEstimatedDeliveryDate());
+            out.writeString(e.getFailureReason());
+            out.writeString(e.getCorrelationId());
+            out.writeNullableLong(e.getTimestamp());
+        }, in -> ShippingResponseEvent.builder()
+                .orderId(in.readUuid())
+                .userId(in.readNullableLong())
+                .shipmentId(in.readUuid())
+                .status(CodeTable.STATUS.read(in))
+                .trackingNumber(in.readString())
+                .carrier(in.readString())
+                .estimatedDeliveryDate(in.readString())
+                .failureReason(in.readString())
+                .correlationId(in.readString())
+                .timestamp(in.readNullableLong())
+                .build()));
+
+        register(EventCodec.of(9, ShippingCancelRequestEvent.class, (e, out) -> {
+            out.writeUuid(e.getOrderId());
+            out.writeNullableLong(e.getUserId());
+            out.writeUuid(e.getShipmentId());
+            CodeTable.REASON.write(out, e.getReason());
+            out.writeString(e.getCorrelationId());
+            out.writeNullableLong(e.getTimestamp());
+        }, in -> ShippingCancelRequestEvent.builder()
+                .orderId(in.readUuid())
+                .userId(in.readNullableLong())
+                .shipmentId(in.readUuid())
+                .reason(CodeTable.REASON.read(in))
+                .correlationId(in.readString())
+                .timestamp(in.readNullableLong())
+                .build()));
+
+        register(EventCodec.of(10, OrderNotificationRequestEvent.class, EventCodecs::writeNotification,
+                EventCodecs::readNotification));
+
+        register(EventCodec.of(11, OrderInventoryReserveBatchRequestEvent.class, (e, out) -> {
+            out.writeUuid(e.getBatchId());
+            out.writeUuid(e.getProductId());
+            out.writeNullableInt(e.getTotalQuantity());
+            writeList(out, e.getReservations(), (reservation, o) -> {
+                o.writeUuid(reservation.getOrderId());
+                o.writeNullableLong(reservation.getUserId());
+                o.writeNullableInt(reservation.getQuantity());
+                o.writeString(reservation.getCorrelationId());
+            });
+            out.writeNullableLong(e.getTimestamp());
+        }, in -> OrderInventoryReserveBatchRequestEvent.builder()
+                .batchId(in.readUuid())
+                .productId(in.readUuid())
+                .totalQuantity(in.readNullableInt())
+                .reservations(readList(in, i -> OrderInventoryReserveBatchRequestEvent.Reservation.builder()
+                        .orderId(i.readUuid())
+                        .userId(i.readNullableLong())
+                        .quantity(i.readNullableInt())
+                        .correlationId(i.readString())
+                        .build()))
+                .timestamp(in.readNullableLong())
+                .build()));
+
+        register(EventCodec.of(12, InventoryReserveBatchResponseEvent.class, (e, out) -> {
+            out.writeUuid(e.getBatchId());
+            out.writeUuid(e.getProductId());
+            out.writeString(e.getFailureReason());
+            writeList(out, e.getResults(), (result, o) -> {
+                o.writeUuid(result.getOrderId());
+                o.writeNullableInt(result.getQuantity());
+                o.writeBoolean(result.isReserved());
+                o.writeString(result.getFailureReason());
+            });
+            out.writeNullableLong(e.getTimestamp());
+        }, in -> InventoryReserveBatchResponseEvent.builder()
+                .batchId(in.readUuid())
+                .productId(in.readUuid())
+                .failureReason(in.readString())
+                .results(readList(in, i -> InventoryReserveBatchResponseEvent.ReservationResult.builder()
+                        .orderId(i.readUuid())
+                        .quantity(i.readNullableInt())
+                        .reserved(i.readBoolean())
+                        .failureReason(i.readString())
+                        .build()))
+                .timestamp(in.readNullableLong())
+                .build()));
+
+        register(EventCodec.of(13, OrderNotificationBatchEvent.class, (e, out) -> {
+            out.writeNullableLong(e.getUserId());
+            out.writeString(e.getUserEmail());
+            writeList(out, e.getNotifications(), EventCodecs::writeNotification);
+            out.writeNullableInt(e.getCoalescedCount());
+            out.writeNullableLong(e.getTimestamp());
+        }, in -> OrderNotificationBatchEvent.builder()
+                .userId(in.readNullableLong())
+                .userEmail(in.readString())
+                .notifications(readList(in, EventCodecs::readNotification))
+                .coalescedCount(in.readNullableInt())
+                .timestamp(in.readNullableLong())
+                .build()));
+    }
+
+    private EventCodecs() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static void register(EventCodec<?> codec) {
+        if (BY_ID.putIfAbsent(codec.typeId(), codec) != null) {
+            throw new IllegalStateException("Duplicate event type id " + codec.typeId());
+        }
+        BY_TYPE.put(codec.eventType(), codec);
+        BY_NAME.put(codec.eventType().getName(), codec.eventType());
+    }
+
+    public static boolean supports(Class<?> eventType) {
+        return BY_TYPE.containsKey(eventType);
+    }
+
+    /**
+     * Resolves a registered event class by its fully qualified name, e.g. from a Spring {@code __TypeId__} header.
+     * Only registered classes are returned so record headers can never trigger arbitrary class loading.
+     */
+    public static Class<?> eventTypeForName(String className) {
+        return className == null ? null : BY_NAME.get(className);
+    }
+
+    public static boolean isBinaryFrame(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(Object event) {
+        EventWriter out = new EventWriter();
+        encode(event, out);
+        return out.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void encode(Object event, EventWriter out) {
+        EventCodec<Object> codec = (EventCodec<Object>) BY_TYPE.get(event.getClass());
+        if (codec == null) {
+            throw new SerializationException("No binary codec registered for " + event.getClass().getName());
+        }
+        out.writeByte(MAGIC);
+        out.writeByte(SCHEMA_VERSION);
+        out.writeVarInt(codec.typeId());
+        codec.encode(event, out);
+    }
+
+    public static Object decode(byte[] data) {
+        return decode(new EventReader(data));
+    }
+
+    public static Object decode(EventReader in) {
+        if ((byte) in.readByte() != MAGIC) {
+            throw new SerializationException("Payload is not a binary event frame");
+        }
+        int version = in.readByte();
+        if (version < 1) {
+            throw new SerializationException("Unsupported event schema version " + version);
+        }
+        int typeId = in.readVarInt();
+        EventCodec<?> codec = BY_ID.get(typeId);
+        if (codec == null) {
+            throw new SerializationException("Unknown event type id " + typeId);
+        }
+        return codec.decode(in);
+    }
+
+    private static void writeNotification(OrderNotificationRequestEvent e, EventWriter out) {
+        out.writeUuid(e.getOrderId());
+        out.writeNullableLong(e.getUserId());
+        out.writeString(e.getUserEmail());
+        CodeTable.NOTIFICATION_TYPE.write(out, e.getNotificationType());
+        CodeTable.ORDER_STATUS.write(out, e.getOrderStatus());
+        out.writeMoney(e.getOrderAmount());
+        out.writeString(e.getMessage());
+        out.writeString(e.getCorrelationId());
+        out.writeNullableLong(e.getTimestamp());
+    }
+
+    private static OrderNotificationRequestEvent readNotification(EventReader in) {
+        return OrderNotificationRequestEvent.builder()
+                .orderId(in.readUuid())
+                .userId(in.readNullableLong())
+                .userEmail(in.readString())
+                .notificationType(CodeTable.NOTIFICATION_TYPE.read(in))
+                .orderStatus(CodeTable.ORDER_STATUS.read(in))
+                .orderAmount(in.readMoney())
+                .message(in.readString())
+                .correlationId(in.readString())
+                .timestamp(in.readNullableLong())
+                .build();
+    }
+
+    public static <E> void writeList(EventWriter out, List<E> values, BiConsumer<E, EventWriter> itemEncoder) {
+        out.writeLength(values);
+        if (values != null) {
+            for (E value : values) {
+                itemEncoder.accept(value, out);
+            }
+        }
+    }
+
+    public static <E> List<E> readList(EventReader in, Function<EventReader, E> itemDecoder) {
+        int length = in.readLength();
+        if (length < 0) {
+            return null;
+        }
+        List<E> values = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            values.add(itemDecoder.apply(in));
+        }
+        return values;
+    }
+}
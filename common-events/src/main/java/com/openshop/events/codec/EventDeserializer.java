@@ -0,0 +1,92 @@
+package com.openshop.events.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Kafka {@link Deserializer} accepting both {@link EventCodecs} binary frames and JSON payloads.
+ * <p>
+ * Binary frames carry their own type id. JSON payloads are mapped using the Spring
+ * {@code __TypeId__} header when it names a registered event, otherwise {@value #DEFAULT_TYPE_CONFIG}.
+ */
+public class EventDeserializer<T> implements Deserializer<T> {
+
+    public static final String DEFAULT_TYPE_CONFIG = "openshop.events.deserializer.default.type";
+
+    private final ObjectMapper objectMapper;
+    private Class<?> defaultType;
+
+    public EventDeserializer() {
+        this(null);
+    }
+
+    public EventDeserializer(Class<T> defaultType) {
+        this(defaultType, new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false));
+    }
+
+    public EventDeserializer(Class<T> defaultType, ObjectMapper objectMapper) {
+        this.defaultType = defaultType;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object configured = configs.get(DEFAULT_TYPE_CONFIG);
+        if (configured instanceof Class<?> type) {
+            defaultType = type;
+        } else if (configured != null) {
+            try {
+                defaultType = Class.forName(configured.toString().trim());
+            } catch (ClassNotFoundException e) {
+                throw new IllegalArgumentException("Unknown default event type " + configured, e);
+            }
+        }
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (EventCodecs.isBinaryFrame(data)) {
+            return (T) EventCodecs.decode(data);
+        }
+        Class<?> targetType = resolveJsonType(headers);
+        if (targetType == null) {
+            throw new SerializationException("No target type for JSON payload on topic " + topic
+                    + "; set " + DEFAULT_TYPE_CONFIG);
+        }
+        try {
+            return (T) objectMapper.readValue(data, targetType);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to deserialize JSON event on topic " + topic, e);
+        }
+    }
+
+    private Class<?> resolveJsonType(Headers headers) {
+        if (headers != null) {
+            Header typeHeader = headers.lastHeader(EventSerializer.TYPE_ID_HEADER);
+            if (typeHeader != null) {
+                Class<?> type = EventCodecs.eventTypeForName(new String(typeHeader.value(), StandardCharsets.UTF_8));
+                if (type != null) {
+                    return type;
+                }
+            }
+        }
+        return defaultType;
+    }
+}
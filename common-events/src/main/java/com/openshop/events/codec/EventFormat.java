@@ -0,0 +1,11 @@
+package com.openshop.events.codec;
+
+/**
+ * Wire format produced by {@link EventSerializer}.
+ */
+public enum EventFormat {
+    /** Compact {@link EventCodecs} frame. */
+    BINARY,
+    /** Jackson JSON, readable by consumers that have not been upgraded yet. */
+    JSON
+}
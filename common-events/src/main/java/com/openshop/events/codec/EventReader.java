@@ -0,0 +1,120 @@
+package com.openshop.events.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Cursor over a byte array produced by {@link EventWriter}.
+ */
+public class EventReader {
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+
+    public EventReader(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    public EventReader(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public int readByte() {
+        require(1);
+        return buffer[position++] & 0xFF;
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public long readVarLong() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new SerializationException("Malformed varint at offset " + position);
+    }
+
+    public int readVarInt() {
+        return (int) readVarLong();
+    }
+
+    public long readLong() {
+        require(8);
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (buffer[position++] & 0xFF);
+        }
+        return value;
+    }
+
+    public Long readNullableLong() {
+        if (!readBoolean()) {
+            return null;
+        }
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public Integer readNullableInt() {
+        if (!readBoolean()) {
+            return null;
+        }
+        int raw = readVarInt();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public UUID readUuid() {
+        if (!readBoolean()) {
+            return null;
+        }
+        return new UUID(readLong(), readLong());
+    }
+
+    public Double readMoney() {
+        Long minorUnits = readNullableLong();
+        return minorUnits == null ? null : minorUnits / (double) EventWriter.MONEY_SCALE;
+    }
+
+    public String readString() {
+        int length = readVarInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        require(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Reads a list length written by {@link EventWriter#writeLength}, returning {@code -1} for a {@code null} list.
+     */
+    public int readLength() {
+        int length = readVarInt() - 1;
+        if (length > limit - position) {
+            throw new SerializationException("List length " + length + " exceeds remaining payload");
+        }
+        return length;
+    }
+
+    public int remaining() {
+        return limit - position;
+    }
+
+    private void require(int bytes) {
+        if (bytes < 0 || position + bytes > limit) {
+            throw new SerializationException("Truncated event payload at offset " + position);
+        }
+    }
+}
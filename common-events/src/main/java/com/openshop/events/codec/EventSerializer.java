@@ -0,0 +1,75 @@
+package com.openshop.events.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Kafka {@link Serializer} writing events as {@link EventCodecs} binary frames.
+ * <p>
+ * During a rolling upgrade set {@value #FORMAT_CONFIG} to {@code json} until every consumer runs
+ * {@link EventDeserializer}, then switch producers to {@code binary}. Classes without a registered
+ * codec are always written as JSON. The binary form stores amounts in whole cents: floating-point
+ * noise such as {@code 0.1 + 0.2} is rounded, a genuine sub-cent amount is rejected.
+ */
+public class EventSerializer<T> implements Serializer<T> {
+
+    public static final String FORMAT_CONFIG = "openshop.events.serializer.format";
+
+    /** Same header Spring Kafka's {@code JsonSerializer} writes, so existing JSON consumers keep working. */
+    public static final String TYPE_ID_HEADER = "__TypeId__";
+
+    private final ObjectMapper objectMapper;
+    private EventFormat format;
+
+    public EventSerializer() {
+        this(EventFormat.BINARY, new ObjectMapper());
+    }
+
+    public EventSerializer(EventFormat format, ObjectMapper objectMapper) {
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object configured = configs.get(FORMAT_CONFIG);
+        if (configured != null) {
+            format = EventFormat.valueOf(configured.toString().trim().toUpperCase());
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        if (data == null) {
+            return null;
+        }
+        if (format == EventFormat.BINARY && EventCodecs.supports(data.getClass())) {
+            return EventCodecs.encode(data);
+        }
+        try {
+            return objectMapper.writeValueAsBytes(data);
+        } catch (JsonProcessingException e) {
+            throw new SerializationException("Failed to serialize " + data.getClass().getName() + " for topic " + topic, e);
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, T data) {
+        byte[] payload = serialize(topic, data);
+        if (payload != null && headers != null && !EventCodecs.isBinaryFrame(payload)) {
+            headers.remove(TYPE_ID_HEADER);
+            headers.add(TYPE_ID_HEADER, data.getClass().getName().getBytes(StandardCharsets.UTF_8));
+        }
+        return payload;
+    }
+
+    public EventFormat getFormat() {
+        return format;
+    }
+}
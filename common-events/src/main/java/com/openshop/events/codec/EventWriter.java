@@ -0,0 +1,146 @@
+package com.openshop.events.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Growable byte sink used by {@link EventCodec}s.
+ * <p>
+ * Nullable values are written with a leading presence marker so that every
+ * field of the Lombok event beans survives a round trip, including {@code null}.
+ */
+public class EventWriter {
+
+    /** Money is carried in hundredths, i.e. cents for every supported currency. */
+    public static final long MONEY_SCALE = 100L;
+
+    /** Largest distance from a whole cent, in minor units, that is still treated as floating-point noise. */
+    static final double MONEY_TOLERANCE = 1e-6;
+
+    private byte[] buffer;
+    private int position;
+
+    public EventWriter() {
+        this(128);
+    }
+
+    public EventWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    public void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeVarInt(int value) {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    public void writeLong(long value) {
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (value >>> shift);
+        }
+    }
+
+    public void writeNullableLong(Long value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+    }
+
+    public void writeNullableInt(Integer value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeVarInt((value << 1) ^ (value >> 31));
+        }
+    }
+
+    /**
+     * Writes a UUID as its two 64-bit halves instead of the 36 character string form.
+     */
+    public void writeUuid(UUID value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeLong(value.getMostSignificantBits());
+            writeLong(value.getLeastSignificantBits());
+        }
+    }
+
+    /**
+     * Writes a monetary amount as a long of minor units (see {@link #MONEY_SCALE}). Floating-point noise
+     * from arithmetic such as {@code 0.1 + 0.2} is rounded to the nearest cent.
+     *
+     * @throws SerializationException if the amount is more than {@link #MONEY_TOLERANCE} minor units away
+     *                                from a whole cent, since the binary form would otherwise differ from
+     *                                what JSON consumers see
+     */
+    public void writeMoney(Double value) {
+        if (value == null) {
+            writeNullableLong(null);
+            return;
+        }
+        double scaled = value * MONEY_SCALE;
+        long minorUnits = Math.round(scaled);
+        if (!(Math.abs(scaled - minorUnits) <= MONEY_TOLERANCE)) {
+            throw new SerializationException("Amount " + value + " is not a whole number of cents");
+        }
+        writeNullableLong(minorUnits);
+    }
+
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    /**
+     * Writes a list length with {@code 0} reserved for a {@code null} list.
+     */
+    public void writeLength(Collection<?> values) {
+        writeVarInt(values == null ? 0 : values.size() + 1);
+    }
+
+    public int size() {
+        return position;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    public void reset() {
+        position = 0;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + extra));
+        }
+    }
+}
@@ -10,6 +10,8 @@ public class KafkaTopics {
     public static final String ORDER_INVENTORY_RESERVE_REQUEST = "order.inventory.reserve.request";
     public static final String INVENTORY_ORDER_RESERVE_RESPONSE = "inventory.order.reserve.response";
     public static final String ORDER_INVENTORY_RESTORE_REQUEST = "order.inventory.restore.request";
+    public static final String ORDER_INVENTORY_RESERVE_BATCH_REQUEST = "order.inventory.reserve.batch.request";
+    public static final String INVENTORY_ORDER_RESERVE_BATCH_RESPONSE = "inventory.order.reserve.batch.response";
     
     // Order to Shipping
     public static final String ORDER_SHIPPING_REQUEST = "order.shipping.request";
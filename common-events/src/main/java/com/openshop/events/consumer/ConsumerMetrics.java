@@ -0,0 +1,31 @@
+package com.openshop.events.consumer;
+
+import lombok.Value;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Map;
+
+/**
+ * Point-in-time view of a {@link KeyOrderedConsumer}.
+ */
+@Value
+public class ConsumerMetrics {
+    long processed;
+    long failed;
+    /** In-process retries of records that failed and were not taken over. */
+    long retried;
+    int inFlight;
+    int activeKeys;
+    int maxKeyQueueDepth;
+    /** Queue depth of the busiest keys, deepest first. */
+    Map<String, Integer> deepestKeys;
+    /** Records dispatched to workers and not yet handled, per partition. */
+    Map<TopicPartition, Integer> pendingByPartition;
+    /** Broker end offset minus consumer position, refreshed on every commit. */
+    Map<TopicPartition, Long> lagByPartition;
+    boolean paused;
+    /** Keys whose head record failed and is waiting for a retry; their later records wait behind it. */
+    int blockedKeys;
+    /** Lowest blocked offset per partition; commits of the partition cannot pass it until it succeeds. */
+    Map<TopicPartition, Long> blockedOffsets;
+}
@@ -0,0 +1,33 @@
+package com.openshop.events.consumer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumerSettings {
+    /** Worker threads shared by all keys. Ignored when an executor is supplied. */
+    @Builder.Default
+    private int concurrency = 16;
+    /** Records dispatched but not yet handled before the consumer pauses fetching. */
+    @Builder.Default
+    private int maxInFlight = 1000;
+    @Builder.Default
+    private Duration pollTimeout = Duration.ofMillis(100);
+    @Builder.Default
+    private Duration commitInterval = Duration.ofSeconds(1);
+    /** How long a rebalance or shutdown waits for running handlers before committing. */
+    @Builder.Default
+    private Duration drainTimeout = Duration.ofSeconds(30);
+    /** First delay before a failed record that was not taken over is retried; doubles per attempt. */
+    @Builder.Default
+    private Duration retryBackoff = Duration.ofSeconds(1);
+    @Builder.Default
+    private Duration maxRetryBackoff = Duration.ofMinutes(1);
+}
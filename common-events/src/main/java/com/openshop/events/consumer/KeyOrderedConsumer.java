@@ -0,0 +1,458 @@
+package com.openshop.events.consumer;
+
+import com.openshop.events.topic.EventTopics;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Kafka consumer that handles records of one partition concurrently across keys while keeping
+ * strict order within a key.
+ * <p>
+ * A single poll thread owns the {@link Consumer}. Each record is appended to the queue of its key
+ * (the event's key for topics in {@link EventTopics}, otherwise the record key); a key's queue is
+ * drained by one worker at a time. Offsets are committed up to the lowest record that has not been
+ * handled yet, so a crash only ever causes redelivery, never loss. Fetching pauses while
+ * {@link ConsumerSettings#getMaxInFlight()} records are outstanding.
+ * <p>
+ * A record that fails and is not taken over by the {@link RecordErrorHandler} is parked at the head of
+ * its key and retried with exponential backoff. Its key is blocked until the retry succeeds, while other
+ * keys keep flowing; commits of its partition stay below it. Blocked keys show up in {@link #metrics()}.
+ * <p>
+ * The engine takes ownership of the consumer and closes it on {@link #close()}.
+ */
+public class KeyOrderedConsumer<T> implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(KeyOrderedConsumer.class);
+
+    private static final int REPORTED_KEYS = 10;
+
+    private final Consumer<String, T> consumer;
+    private final RecordHandler<T> handler;
+    private final RecordErrorHandler<T> errorHandler;
+    private final ConsumerSettings settings;
+    private final ExecutorService workers;
+    private final boolean ownsWorkers;
+    private final ScheduledExecutorService retryScheduler;
+
+    // Guarded by itself; also guards the contents of every KeyQueue.
+    private final Map<String, KeyQueue<T>> keyQueues = new HashMap<>();
+    private final Map<TopicPartition, OffsetTracker> offsets = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+
+    private volatile boolean running;
+    private volatile boolean paused;
+    private volatile Map<TopicPartition, Long> lag = Map.of();
+    private Thread pollThread;
+
+    public KeyOrderedConsumer(Consumer<String, T> consumer, RecordHandler<T> handler, ConsumerSettings settings) {
+        this(consumer, handler, RecordErrorHandler.retryInPlace(), settings, null);
+    }
+
+    /**
+     * @param workers executor running the handlers, e.g. a virtual-thread-per-task executor on newer JDKs;
+     *                {@code null} creates a fixed pool of {@link ConsumerSettings#getConcurrency()} threads
+     */
+    public KeyOrderedConsumer(Consumer<String, T> consumer, RecordHandler<T> handler,
+                              RecordErrorHandler<T> errorHandler, ConsumerSettings settings, ExecutorService workers) {
+        this.consumer = consumer;
+        this.handler = handler;
+        this.errorHandler = errorHandler;
+        this.settings = settings;
+        this.ownsWorkers = workers == null;
+        this.workers = workers != null ? workers : Executors.newFixedThreadPool(settings.getConcurrency(), r -> {
+            Thread thread = new Thread(r, "key-ordered-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "key-ordered-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public synchronized void start(Collection<String> topics) {
+        if (running) {
+            throw new IllegalStateException("Consumer already started");
+        }
+        running = true;
+        pollThread = new Thread(() -> {
+            consumer.subscribe(topics, new RebalanceListener());
+            pollLoop();
+        }, "key-ordered-poller");
+        pollThread.start();
+    }
+
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = pollThread;
+        }
+        if (thread != null) {
+            consumer.wakeup();
+            try {
+                thread.join(settings.getDrainTimeout().toMillis() + settings.getPollTimeout().toMillis() * 2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        retryScheduler.shutdownNow();
+        if (ownsWorkers) {
+            workers.shutdown();
+        }
+    }
+
+    public ConsumerMetrics metrics() {
+        int activeKeys;
+        int maxDepth = 0;
+        Map<String, Integer> deepest = new LinkedHashMap<>();
+        Map<TopicPartition, Long> blocked = new HashMap<>();
+        int blockedKeys = 0;
+        synchronized (keyQueues) {
+            activeKeys = keyQueues.size();
+            for (KeyQueue<T> queue : keyQueues.values()) {
+                if (queue.attempts > 0) {
+                    blockedKeys++;
+                    ConsumerRecord<String, T> record = queue.parked != null ? queue.parked : queue.current;
+                    if (record != null) {
+                        blocked.merge(new TopicPartition(record.topic(), record.partition()), record.offset(), Math::min);
+                    }
+                }
+            }
+            Iterator<KeyQueue<T>> busiest = keyQueues.values().stream()
+                    .sorted(Comparator.comparingInt((KeyQueue<T> q) -> q.depth()).reversed())
+                    .limit(REPORTED_KEYS)
+                    .iterator();
+            while (busiest.hasNext()) {
+                KeyQueue<T> queue = busiest.next();
+                maxDepth = Math.max(maxDepth, queue.depth());
+                deepest.put(queue.key, queue.depth());
+            }
+        }
+        Map<TopicPartition, Integer> pending = new HashMap<>();
+        offsets.forEach((partition, tracker) -> pending.put(partition, tracker.pending()));
+        return new ConsumerMetrics(processed.sum(), failed.sum(), retried.sum(), inFlight.get(), activeKeys,
+                maxDepth, deepest, pending, lag, paused, blockedKeys, blocked);
+    }
+
+    private void pollLoop() {
+        long nextCommit = System.nanoTime() + settings.getCommitInterval().toNanos();
+        try {
+            while (running) {
+                for (ConsumerRecord<String, T> record : consumer.poll(settings.getPollTimeout())) {
+                    dispatch(record);
+                }
+                applyBackpressure();
+                if (System.nanoTime() - nextCommit >= 0) {
+                    commit(offsets.keySet(), false);
+                    refreshLag();
+                    nextCommit = System.nanoTime() + settings.getCommitInterval().toNanos();
+                }
+            }
+        } catch (WakeupException e) {
+            if (running) {
+                throw e;
+            }
+        } catch (RuntimeException e) {
+            log.error("Key-ordered consumer poll loop failed", e);
+            throw e;
+        } finally {
+            try {
+                Set<TopicPartition> all = new HashSet<>(offsets.keySet());
+                purgeQueued(all);
+                awaitRunning(all);
+                commit(all, true);
+            } finally {
+                consumer.close();
+            }
+        }
+    }
+
+    private void dispatch(ConsumerRecord<String, T> record) {
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        offsets.computeIfAbsent(partition, p -> new OffsetTracker()).track(record.offset());
+        inFlight.incrementAndGet();
+
+        String key = keyOf(record);
+        KeyQueue<T> queue;
+        boolean schedule;
+        synchronized (keyQueues) {
+            queue = keyQueues.computeIfAbsent(key, KeyQueue::new);
+            queue.records.add(record);
+            schedule = !queue.scheduled;
+            queue.scheduled = true;
+        }
+        if (schedule) {
+            workers.execute(() -> drain(queue));
+        }
+    }
+
+    // The event's own key wins over the record key, as in OrderKeyPartitioner, so a mis-keyed record
+    // still queues behind the other events of its order.
+    private String keyOf(ConsumerRecord<String, T> record) {
+        String eventKey = EventTopics.forName(record.topic())
+                .map(topic -> topic.keyOf(record.value()))
+                .orElse(null);
+        if (eventKey != null) {
+            return eventKey;
+        }
+        // Unkeyed records that carry no event key keep plain partition order.
+        return record.key() != null ? record.key() : record.topic() + "-" + record.partition();
+    }
+
+    private void drain(KeyQueue<T> queue) {
+        while (true) {
+            ConsumerRecord<String, T> record;
+            synchronized (keyQueues) {
+                if (queue.parked != null) {
+                    record = queue.parked;
+                    queue.parked = null;
+                    if (!offsets.containsKey(new TopicPartition(record.topic(), record.partition()))) {
+                        // Failed while its partition was revoked; the new owner re-reads it.
+                        queue.attempts = 0;
+                        inFlight.decrementAndGet();
+                        continue;
+                    }
+                    retried.increment();
+                } else {
+                    record = queue.records.poll();
+                }
+                if (record == null) {
+                    queue.scheduled = false;
+                    keyQueues.remove(queue.key);
+                    return;
+                }
+                queue.current = record;
+            }
+            Exception failure = handle(record);
+            if (failure != null) {
+                int attempts;
+                synchronized (keyQueues) {
+                    queue.current = null;
+                    queue.parked = record;
+                    attempts = ++queue.attempts;
+                }
+                long backoff = backoffMillis(attempts);
+                log.warn("Record {}-{}@{} failed {} time(s); key {} is blocked, retrying in {} ms",
+                        record.topic(), record.partition(), record.offset(), attempts, queue.key, backoff, failure);
+                scheduleRetry(queue, backoff);
+                return;
+            }
+            synchronized (keyQueues) {
+                queue.current = null;
+                queue.attempts = 0;
+            }
+        }
+    }
+
+    /**
+     * @return the failure if the record failed and nobody took it over, so it has to be retried
+     */
+    private Exception handle(ConsumerRecord<String, T> record) {
+        try {
+            handler.handle(record);
+            processed.increment();
+        } catch (Exception e) {
+            failed.increment();
+            try {
+                errorHandler.handle(record, e);
+            } catch (RuntimeException notTakenOver) {
+                return notTakenOver.getCause() == e ? e : notTakenOver;
+            }
+        }
+        OffsetTracker tracker = offsets.get(new TopicPartition(record.topic(), record.partition()));
+        if (tracker != null) {
+            tracker.complete(record.offset());
+        }
+        inFlight.decrementAndGet();
+        return null;
+    }
+
+    private long backoffMillis(int attempts) {
+        long initial = settings.getRetryBackoff().toMillis();
+        long max = settings.getMaxRetryBackoff().toMillis();
+        return Math.min(max, initial << Math.min(attempts - 1, 20));
+    }
+
+    private void scheduleRetry(KeyQueue<T> queue, long backoffMillis) {
+        try {
+            retryScheduler.schedule(() -> {
+                if (running) {
+                    workers.execute(() -> drain(queue));
+                }
+            }, backoffMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the parked record is purged and redelivered after restart.
+        }
+    }
+
+    private void applyBackpressure() {
+        int outstanding = inFlight.get();
+        if (!paused && outstanding >= settings.getMaxInFlight()) {
+            consumer.pause(consumer.assignment());
+            paused = true;
+        } else if (paused && outstanding <= settings.getMaxInFlight() / 2) {
+            consumer.resume(consumer.paused());
+            paused = false;
+        }
+    }
+
+    private void commit(Collection<TopicPartition> partitions, boolean sync) {
+        Map<TopicPartition, OffsetAndMetadata> commits = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            OffsetTracker tracker = offsets.get(partition);
+            if (tracker == null) {
+                continue;
+            }
+            long committable = tracker.nextCommit();
+            if (committable >= 0) {
+                commits.put(partition, new OffsetAndMetadata(committable));
+            }
+        }
+        if (commits.isEmpty()) {
+            return;
+        }
+        if (sync) {
+            consumer.commitSync(commits);
+        } else {
+            consumer.commitAsync(commits, (committed, e) -> {
+                if (e != null) {
+                    log.warn("Async offset commit failed for {}", committed.keySet(), e);
+                }
+            });
+        }
+    }
+
+    private void refreshLag() {
+        Map<TopicPartition, Long> current = new HashMap<>();
+        for (TopicPartition partition : consumer.assignment()) {
+            OptionalLong partitionLag = consumer.currentLag(partition);
+            if (partitionLag.isPresent()) {
+                current.put(partition, partitionLag.getAsLong());
+            }
+        }
+        lag = current;
+    }
+
+    // Drops records of the given partitions that no worker is running, including parked ones;
+    // the next owner re-reads them.
+    private void purgeQueued(Collection<TopicPartition> partitions) {
+        synchronized (keyQueues) {
+            for (KeyQueue<T> queue : keyQueues.values()) {
+                ConsumerRecord<String, T> parked = queue.parked;
+                if (parked != null && partitions.contains(new TopicPartition(parked.topic(), parked.partition()))) {
+                    OffsetTracker tracker = offsets.get(new TopicPartition(parked.topic(), parked.partition()));
+                    if (tracker != null) {
+                        tracker.discard(parked.offset());
+                    }
+                    inFlight.decrementAndGet();
+                    queue.parked = null;
+                    queue.attempts = 0;
+                }
+                queue.records.removeIf(record -> {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (!partitions.contains(partition)) {
+                        return false;
+                    }
+                    OffsetTracker tracker = offsets.get(partition);
+                    if (tracker != null) {
+                        tracker.discard(record.offset());
+                    }
+                    inFlight.decrementAndGet();
+                    return true;
+                });
+            }
+        }
+    }
+
+    private void awaitRunning(Collection<TopicPartition> partitions) {
+        long deadline = System.nanoTime() + settings.getDrainTimeout().toNanos();
+        for (TopicPartition partition : partitions) {
+            OffsetTracker tracker = offsets.get(partition);
+            while (tracker != null && tracker.pending() > 0) {
+                if (System.nanoTime() - deadline >= 0) {
+                    log.warn("Timed out waiting for {} running records of {}", tracker.pending(), partition);
+                    return;
+                }
+                try {
+                    TimeUnit.MILLISECONDS.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private final class RebalanceListener implements ConsumerRebalanceListener {
+
+        @Override
+        public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+            purgeQueued(partitions);
+            awaitRunning(partitions);
+            commit(partitions, true);
+            partitions.forEach(offsets::remove);
+        }
+
+        @Override
+        public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+            if (paused) {
+                consumer.pause(partitions);
+            }
+        }
+
+        @Override
+        public void onPartitionsLost(Collection<TopicPartition> partitions) {
+            purgeQueued(partitions);
+            partitions.forEach(offsets::remove);
+        }
+    }
+
+    private static final class KeyQueue<T> {
+        private final String key;
+        private final ArrayDeque<ConsumerRecord<String, T>> records = new ArrayDeque<>();
+        private boolean scheduled;
+        private ConsumerRecord<String, T> current;
+        // Failed record waiting for its retry; the key is blocked meanwhile.
+        private ConsumerRecord<String, T> parked;
+        private int attempts;
+
+        private KeyQueue(String key) {
+            this.key = key;
+        }
+
+        private int depth() {
+            return records.size() + (scheduled ? 1 : 0);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.openshop.events.consumer;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Tracks out-of-order completion of the records of one partition and yields the highest offset that
+ * is safe to commit: everything below it has been handled.
+ * <p>
+ * {@link #track} and {@link #nextCommit} are called from the poll thread, {@link #complete} from any.
+ */
+public final class OffsetTracker {
+
+    private final ConcurrentSkipListSet<Long> pending = new ConcurrentSkipListSet<>();
+    private volatile long nextOffset = -1;
+    private volatile long discardFloor = Long.MAX_VALUE;
+    private long lastCommitted = -1;
+
+    public void track(long offset) {
+        pending.add(offset);
+        nextOffset = offset + 1;
+    }
+
+    public void complete(long offset) {
+        pending.remove(offset);
+    }
+
+    /**
+     * Gives up on a record without handling it, when its partition is revoked or the consumer shuts
+     * down; commits never move past it again, and the tracker is dropped with the partition.
+     */
+    public void discard(long offset) {
+        pending.remove(offset);
+        discardFloor = Math.min(discardFloor, offset);
+    }
+
+    public int pending() {
+        return pending.size();
+    }
+
+    /**
+     * @return the offset to commit, or {@code -1} when nothing new can be committed
+     */
+    public long nextCommit() {
+        Long lowestPending = pending.ceiling(Long.MIN_VALUE);
+        long committable = Math.min(lowestPending != null ? lowestPending : nextOffset, discardFloor);
+        if (committable <= lastCommitted) {
+            return -1;
+        }
+        lastCommitted = committable;
+        return committable;
+    }
+}
@@ -0,0 +1,24 @@
+package com.openshop.events.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+/**
+ * Called when a {@link RecordHandler} throws. The record's offset is committed once this returns,
+ * so an implementation that must not lose the event has to hand it off (e.g. to a retry topic) first.
+ * If it throws instead, the record was not taken over: the consumer parks it, blocks its key and retries
+ * it with backoff, and offsets are not committed past it until it succeeds.
+ */
+@FunctionalInterface
+public interface RecordErrorHandler<T> {
+
+    void handle(ConsumerRecord<String, T> record, Exception exception);
+
+    /**
+     * Takes nothing over, so every failed record is retried in place until it succeeds.
+     */
+    static <T> RecordErrorHandler<T> retryInPlace() {
+        return (record, exception) -> {
+            throw new IllegalStateException("Record not taken over", exception);
+        };
+    }
+}
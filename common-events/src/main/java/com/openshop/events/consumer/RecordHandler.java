@@ -0,0 +1,12 @@
+package com.openshop.events.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+/**
+ * Business logic invoked for each consumed record.
+ */
+@FunctionalInterface
+public interface RecordHandler<T> {
+
+    void handle(ConsumerRecord<String, T> record) throws Exception;
+}
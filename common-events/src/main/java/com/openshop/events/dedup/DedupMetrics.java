@@ -0,0 +1,26 @@
+package com.openshop.events.dedup;
+
+import lombok.Value;
+
+/**
+ * Point-in-time counters of a {@link DuplicateFilter}.
+ */
+@Value
+public class DedupMetrics {
+    long checked;
+    long duplicates;
+    /** Events the Bloom filter flagged but that turned out to be new. */
+    long falsePositives;
+    /** Bloom hits that could be resolved neither by the exact cache nor a {@link DedupStore}; let through. */
+    long unconfirmed;
+    long storeLookups;
+
+    public double duplicateRate() {
+        return checked == 0 ? 0 : (double) duplicates / checked;
+    }
+
+    public double falsePositiveRate() {
+        long unique = checked - duplicates;
+        return unique == 0 ? 0 : (double) (falsePositives + unconfirmed) / unique;
+    }
+}
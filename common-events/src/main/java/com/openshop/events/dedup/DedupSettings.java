@@ -0,0 +1,29 @@
+package com.openshop.events.dedup;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DedupSettings {
+    /** Width of one Bloom filter generation. */
+    @Builder.Default
+    private Duration bucketDuration = Duration.ofMinutes(10);
+    /** Generations kept; duplicates are detected for {@code buckets * bucketDuration}. */
+    @Builder.Default
+    private int buckets = 6;
+    /** Expected unique events per generation, used to size each Bloom filter. */
+    @Builder.Default
+    private int expectedEventsPerBucket = 100_000;
+    @Builder.Default
+    private double falsePositiveProbability = 0.01;
+    /** Exact keys remembered to confirm Bloom filter hits without I/O. */
+    @Builder.Default
+    private int exactCapacity = 100_000;
+}
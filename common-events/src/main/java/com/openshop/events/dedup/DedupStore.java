@@ -0,0 +1,20 @@
+package com.openshop.events.dedup;
+
+import java.util.function.Consumer;
+
+/**
+ * Optional durable record of processed event keys, e.g. a table or Redis set. Consulted when the
+ * in-memory filters cannot tell a duplicate from a Bloom filter false positive, and read back by
+ * {@link DuplicateFilter#warm()} so a restarted or newly assigned consumer knows what was processed.
+ */
+public interface DedupStore {
+
+    boolean contains(String key);
+
+    void put(String key);
+
+    /**
+     * Passes every key put at or after {@code sinceEpochMillis} to {@code action}, in any order.
+     */
+    void forEachSince(long sinceEpochMillis, Consumer<String> action);
+}
@@ -0,0 +1,196 @@
+package com.openshop.events.dedup;
+
+import com.openshop.events.SagaEvent;
+import com.openshop.events.consumer.RecordHandler;
+import com.openshop.events.inventory.InventoryReserveResponseEvent;
+import com.openshop.events.order.OrderNotificationRequestEvent;
+import com.openshop.events.payment.PaymentResponseEvent;
+import com.openshop.events.shipping.ShippingResponseEvent;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Drops redelivered events keyed by ({@code correlationId}, event type, {@code orderId}) plus, for
+ * event types that legitimately occur more than once per saga, the field telling those occurrences
+ * apart: the {@code notificationType} of a notification (confirmed, shipped, cancelled) and the
+ * {@code status} of a response.
+ * <p>
+ * A {@link TimeBucketedBloomFilter} answers "definitely new" for most unique events without any
+ * lookup. Only Bloom hits are checked against a bounded exact LRU of recent keys, and, if that misses
+ * too, against the optional {@link DedupStore}. Without a store, a Bloom hit unknown to the LRU is let
+ * through and counted as unconfirmed.
+ * <p>
+ * A Bloom miss never reaches the store, so the Bloom filter must already hold the keys of events that
+ * can be redelivered. With a store, the filter loads the keys of the whole detection window from it
+ * when created, and {@link #warm()} must be called again whenever partitions are assigned, since the
+ * previous owner may have recorded keys after that. Without a store, redeliveries after a restart or
+ * rebalance are not detected.
+ * <p>
+ * Checking and recording the same key from two threads at once is not atomic; with
+ * {@code KeyOrderedConsumer} all events of an order are handled sequentially, so this cannot happen.
+ */
+public class DuplicateFilter {
+
+    private static final Map<Class<?>, Function<SagaEvent, String>> DISCRIMINATORS = Map.of(
+            OrderNotificationRequestEvent.class, e -> ((OrderNotificationRequestEvent) e).getNotificationType(),
+            PaymentResponseEvent.class, e -> ((PaymentResponseEvent) e).getStatus(),
+            InventoryReserveResponseEvent.class, e -> ((InventoryReserveResponseEvent) e).getStatus(),
+            ShippingResponseEvent.class, e -> ((ShippingResponseEvent) e).getStatus());
+
+    private final TimeBucketedBloomFilter bloom;
+    private final Clock clock;
+    private final Duration horizon;
+    private final Map<String, Boolean> recent;
+    private final DedupStore store;
+
+    private final LongAdder checked = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder unconfirmed = new LongAdder();
+    private final LongAdder storeLookups = new LongAdder();
+
+    public DuplicateFilter(DedupSettings settings) {
+        this(settings, null, Clock.systemUTC());
+    }
+
+    public DuplicateFilter(DedupSettings settings, DedupStore store, Clock clock) {
+        this.bloom = new TimeBucketedBloomFilter(settings.getBucketDuration(), settings.getBuckets(),
+                settings.getExpectedEventsPerBucket(), settings.getFalsePositiveProbability(), clock);
+        this.store = store;
+        this.clock = clock;
+        this.horizon = settings.getBucketDuration().multipliedBy(settings.getBuckets());
+        int capacity = settings.getExactCapacity();
+        this.recent = new LinkedHashMap<>(Math.min(capacity, 1 << 16), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+        warm();
+    }
+
+    public static String keyOf(SagaEvent event) {
+        String key = event.getCorrelationId() + '|' + event.getClass().getSimpleName() + '|' + event.getOrderId();
+        Function<SagaEvent, String> discriminator = DISCRIMINATORS.get(event.getClass());
+        return discriminator == null ? key : key + '|' + discriminator.apply(event);
+    }
+
+    public boolean isDuplicate(SagaEvent event) {
+        return isDuplicate(keyOf(event));
+    }
+
+    public void markProcessed(SagaEvent event) {
+        markProcessed(keyOf(event));
+    }
+
+    /**
+     * Checks and records an event in one call.
+     *
+     * @return {@code true} on the first delivery, {@code false} for a duplicate
+     */
+    public boolean firstDelivery(SagaEvent event) {
+        String key = keyOf(event);
+        if (isDuplicate(key)) {
+            return false;
+        }
+        markProcessed(key);
+        return true;
+    }
+
+    /**
+     * Wraps a handler so duplicates are skipped and an event is only recorded once it was handled
+     * successfully; a failed event stays eligible for redelivery.
+     */
+    public <T> RecordHandler<T> filtering(RecordHandler<T> handler) {
+        return record -> {
+            if (!(record.value() instanceof SagaEvent event)) {
+                handler.handle(record);
+                return;
+            }
+            String key = keyOf(event);
+            if (isDuplicate(key)) {
+                return;
+            }
+            handler.handle(record);
+            markProcessed(key);
+        };
+    }
+
+    /**
+     * Adds every key the {@link DedupStore} recorded within the detection window to the Bloom filter.
+     * Call it from partition assignment; without a store it does nothing.
+     *
+     * @return the number of keys loaded
+     */
+    public long warm() {
+        if (store == null) {
+            return 0;
+        }
+        LongAdder loaded = new LongAdder();
+        store.forEachSince(clock.millis() - horizon.toMillis(), key -> {
+            bloom.put(hash(key, 0xcbf29ce484222325L), hash(key, 0x84222325cbf29ce4L));
+            loaded.increment();
+        });
+        return loaded.sum();
+    }
+
+    public DedupMetrics metrics() {
+        return new DedupMetrics(checked.sum(), duplicates.sum(), falsePositives.sum(), unconfirmed.sum(),
+                storeLookups.sum());
+    }
+
+    private boolean isDuplicate(String key) {
+        checked.increment();
+        long hash1 = hash(key, 0xcbf29ce484222325L);
+        long hash2 = hash(key, 0x84222325cbf29ce4L);
+        if (!bloom.mightContain(hash1, hash2)) {
+            return false;
+        }
+        synchronized (recent) {
+            if (recent.get(key) != null) {
+                duplicates.increment();
+                return true;
+            }
+        }
+        if (store == null) {
+            unconfirmed.increment();
+            return false;
+        }
+        storeLookups.increment();
+        if (store.contains(key)) {
+            duplicates.increment();
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    private void markProcessed(String key) {
+        bloom.put(hash(key, 0xcbf29ce484222325L), hash(key, 0x84222325cbf29ce4L));
+        synchronized (recent) {
+            recent.put(key, Boolean.TRUE);
+        }
+        if (store != null) {
+            store.put(key);
+        }
+    }
+
+    // FNV-1a over the UTF-16 chars, finished with a 64-bit avalanche mix.
+    private static long hash(String key, long seed) {
+        long h = seed;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,93 @@
+package com.openshop.events.dedup;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter split into time generations. Keys are added to the current generation and looked up
+ * in all of them; the oldest generation is cleared when the window moves on, which bounds memory and
+ * keeps the false positive rate from growing over time.
+ */
+public class TimeBucketedBloomFilter {
+
+    private final Clock clock;
+    private final long bucketMillis;
+    private final int bitCount;
+    private final int hashCount;
+    private final AtomicLongArray[] generations;
+    private final AtomicLongArray generationEpochs;
+
+    public TimeBucketedBloomFilter(Duration bucketDuration, int buckets, int expectedInsertions,
+                                   double falsePositiveProbability, Clock clock) {
+        this.clock = clock;
+        this.bucketMillis = bucketDuration.toMillis();
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.max(64, Math.min(bits, Integer.MAX_VALUE - 63L));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.generations = new AtomicLongArray[buckets];
+        this.generationEpochs = new AtomicLongArray(buckets);
+        for (int i = 0; i < buckets; i++) {
+            generations[i] = new AtomicLongArray((bitCount + 63) >>> 6);
+            generationEpochs.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    public boolean mightContain(long hash1, long hash2) {
+        long epoch = currentEpoch();
+        for (int i = 0; i < generations.length; i++) {
+            if (generationEpochs.get(i) > epoch - generations.length && contains(generations[i], hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void put(long hash1, long hash2) {
+        long epoch = currentEpoch();
+        int index = (int) Math.floorMod(epoch, (long) generations.length);
+        if (generationEpochs.get(index) != epoch) {
+            rotate(index, epoch);
+        }
+        AtomicLongArray bits = generations[index];
+        for (int i = 0; i < hashCount; i++) {
+            int bit = bitIndex(hash1, hash2, i);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long current;
+            while (((current = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private synchronized void rotate(int index, long epoch) {
+        if (generationEpochs.get(index) == epoch) {
+            return;
+        }
+        AtomicLongArray bits = generations[index];
+        for (int i = 0; i < bits.length(); i++) {
+            bits.set(i, 0);
+        }
+        generationEpochs.set(index, epoch);
+    }
+
+    private boolean contains(AtomicLongArray bits, long hash1, long hash2) {
+        for (int i = 0; i < hashCount; i++) {
+            int bit = bitIndex(hash1, hash2, i);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Kirsch-Mitzenmacher double hashing.
+    private int bitIndex(long hash1, long hash2, int i) {
+        return (int) Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+    }
+
+    private long currentEpoch() {
+        return clock.millis() / bucketMillis;
+    }
+}
@@ -0,0 +1,35 @@
+package com.openshop.events.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of an {@code OrderInventoryReserveBatchRequestEvent}, one result per reservation.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryReserveBatchResponseEvent {
+    private UUID batchId;
+    private UUID productId;
+    private String failureReason; // set when the whole batch failed, e.g. unknown product
+    private List<ReservationResult> results;
+    private Long timestamp;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ReservationResult {
+        private UUID orderId;
+        private Integer quantity;
+        private boolean reserved;
+        private String failureReason;
+    }
+}
@@ -0,0 +1,37 @@
+package com.openshop.events.latency;
+
+import org.apache.kafka.clients.consumer.ConsumerInterceptor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Map;
+
+/**
+ * Feeds consumed records into {@link SagaLatencyRecorder#global()}.
+ * Enable with {@code interceptor.classes=com.openshop.events.latency.LatencyConsumerInterceptor}.
+ */
+public class LatencyConsumerInterceptor implements ConsumerInterceptor<Object, Object> {
+
+    @Override
+    public ConsumerRecords<Object, Object> onConsume(ConsumerRecords<Object, Object> records) {
+        SagaLatencyRecorder recorder = SagaLatencyRecorder.global();
+        for (ConsumerRecord<Object, Object> record : records) {
+            recorder.onConsume(record.topic(), record.value());
+        }
+        return records;
+    }
+
+    @Override
+    public void onCommit(Map<TopicPartition, OffsetAndMetadata> offsets) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.openshop.events.latency;
+
+import org.apache.kafka.clients.producer.ProducerInterceptor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+
+import java.util.Map;
+
+/**
+ * Feeds produced records into {@link SagaLatencyRecorder#global()}.
+ * Enable with {@code interceptor.classes=com.openshop.events.latency.LatencyProducerInterceptor}.
+ */
+public class LatencyProducerInterceptor implements ProducerInterceptor<Object, Object> {
+
+    @Override
+    public ProducerRecord<Object, Object> onSend(ProducerRecord<Object, Object> record) {
+        SagaLatencyRecorder.global().onProduce(record.topic(), record.value());
+        return record;
+    }
+
+    @Override
+    public void onAcknowledgement(RecordMetadata metadata, Exception exception) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+    }
+}
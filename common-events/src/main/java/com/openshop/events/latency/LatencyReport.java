@@ -0,0 +1,22 @@
+package com.openshop.events.latency;
+
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Snapshot of a {@link SagaLatencyRecorder}, in microseconds.
+ */
+@Value
+public class LatencyReport {
+    /** Event {@code timestamp} to the producer handing the record to Kafka, per topic. */
+    Map<String, LatencyHistogram.Snapshot> produce;
+    /** Event {@code timestamp} to the consumer receiving the record, per topic. */
+    Map<String, LatencyHistogram.Snapshot> consume;
+    /** Time spent in the handler, per topic. */
+    Map<String, LatencyHistogram.Snapshot> handler;
+    /** Request event {@code timestamp} to its response being consumed, per saga hop. */
+    Map<SagaHop, LatencyHistogram.Snapshot> hops;
+    /** Requests still waiting for their response. */
+    int openRequests;
+}
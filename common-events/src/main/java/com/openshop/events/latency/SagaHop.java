@@ -0,0 +1,46 @@
+package com.openshop.events.latency;
+
+import com.openshop.events.constants.KafkaTopics;
+
+/**
+ * Request/response pairs of the order saga, joined by {@code correlationId}.
+ */
+public enum SagaHop {
+    INVENTORY_RESERVE(KafkaTopics.ORDER_INVENTORY_RESERVE_REQUEST, KafkaTopics.INVENTORY_ORDER_RESERVE_RESPONSE),
+    PAYMENT(KafkaTopics.ORDER_PAYMENT_REQUEST, KafkaTopics.PAYMENT_ORDER_RESPONSE),
+    SHIPPING(KafkaTopics.ORDER_SHIPPING_REQUEST, KafkaTopics.SHIPPING_ORDER_RESPONSE);
+
+    private final String requestTopic;
+    private final String responseTopic;
+
+    SagaHop(String requestTopic, String responseTopic) {
+        this.requestTopic = requestTopic;
+        this.responseTopic = responseTopic;
+    }
+
+    public String getRequestTopic() {
+        return requestTopic;
+    }
+
+    public String getResponseTopic() {
+        return responseTopic;
+    }
+
+    static SagaHop forRequest(String topic) {
+        for (SagaHop hop : values()) {
+            if (hop.requestTopic.equals(topic)) {
+                return hop;
+            }
+        }
+        return null;
+    }
+
+    static SagaHop forResponse(String topic) {
+        for (SagaHop hop : values()) {
+            if (hop.responseTopic.equals(topic)) {
+                return hop;
+            }
+        }
+        return null;
+    }
+}
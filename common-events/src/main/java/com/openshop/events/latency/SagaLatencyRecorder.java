@@ -0,0 +1,133 @@
+package com.openshop.events.latency;
+
+import com.openshop.events.SagaEvent;
+import com.openshop.events.consumer.RecordHandler;
+
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records per-topic produce, consume and handler latencies and per-hop saga latencies.
+ * <p>
+ * Hops are joined by {@code correlationId}: the request's {@code timestamp} is remembered when the
+ * request is produced or consumed, and the hop is recorded when the matching response is consumed.
+ * Both ends are usually measured on the orchestrating service, so the hop is free of clock skew
+ * between services. Open requests are bounded; the oldest are dropped when the limit is reached.
+ * <p>
+ * {@link #global()} is shared with {@link LatencyProducerInterceptor} and {@link LatencyConsumerInterceptor},
+ * which Kafka instantiates by class name.
+ */
+public class SagaLatencyRecorder {
+
+    private static final SagaLatencyRecorder GLOBAL = new SagaLatencyRecorder(Clock.systemUTC(), 100_000);
+
+    private final Clock clock;
+    private final int maxOpenRequests;
+    private final Map<String, LatencyHistogram> produce = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> consume = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> handler = new ConcurrentHashMap<>();
+    private final Map<SagaHop, LatencyHistogram> hops = new EnumMap<>(SagaHop.class);
+    // Guarded by itself. Keyed by hop name and correlationId.
+    private final LinkedHashMap<String, Long> openRequests = new LinkedHashMap<>();
+
+    public SagaLatencyRecorder(Clock clock, int maxOpenRequests) {
+        this.clock = clock;
+        this.maxOpenRequests = maxOpenRequests;
+        for (SagaHop hop : SagaHop.values()) {
+            hops.put(hop, new LatencyHistogram());
+        }
+    }
+
+    public static SagaLatencyRecorder global() {
+        return GLOBAL;
+    }
+
+    public void onProduce(String topic, Object event) {
+        if (event instanceof SagaEvent sagaEvent) {
+            recordSince(produce, topic, sagaEvent.getTimestamp());
+            openRequest(topic, sagaEvent);
+        }
+    }
+
+    public void onConsume(String topic, Object event) {
+        if (!(event instanceof SagaEvent sagaEvent)) {
+            return;
+        }
+        recordSince(consume, topic, sagaEvent.getTimestamp());
+        openRequest(topic, sagaEvent);
+        SagaHop hop = SagaHop.forResponse(topic);
+        if (hop != null && sagaEvent.getCorrelationId() != null) {
+            Long requestTimestamp;
+            synchronized (openRequests) {
+                requestTimestamp = openRequests.remove(hop.name() + '|' + sagaEvent.getCorrelationId());
+            }
+            if (requestTimestamp != null) {
+                hops.get(hop).record((clock.millis() - requestTimestamp) * 1_000);
+            }
+        }
+    }
+
+    public void onHandled(String topic, long handlerNanos) {
+        histogram(handler, topic).record(handlerNanos / 1_000);
+    }
+
+    /**
+     * Wraps a handler so its execution time is recorded under the record's topic.
+     */
+    public <T> RecordHandler<T> timing(RecordHandler<T> delegate) {
+        return record -> {
+            long start = System.nanoTime();
+            try {
+                delegate.handle(record);
+            } finally {
+                onHandled(record.topic(), System.nanoTime() - start);
+            }
+        };
+    }
+
+    public LatencyReport report() {
+        Map<SagaHop, LatencyHistogram.Snapshot> hopSnapshots = new EnumMap<>(SagaHop.class);
+        hops.forEach((hop, histogram) -> hopSnapshots.put(hop, histogram.snapshot()));
+        int open;
+        synchronized (openRequests) {
+            open = openRequests.size();
+        }
+        return new LatencyReport(snapshot(produce), snapshot(consume), snapshot(handler), hopSnapshots, open);
+    }
+
+    private void openRequest(String topic, SagaEvent event) {
+        SagaHop hop = SagaHop.forRequest(topic);
+        if (hop == null || event.getCorrelationId() == null || event.getTimestamp() == null) {
+            return;
+        }
+        synchronized (openRequests) {
+            openRequests.putIfAbsent(hop.name() + '|' + event.getCorrelationId(), event.getTimestamp());
+            if (openRequests.size() > maxOpenRequests) {
+                Iterator<String> eldest = openRequests.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    private void recordSince(Map<String, LatencyHistogram> histograms, String topic, Long timestamp) {
+        if (timestamp != null) {
+            histogram(histograms, topic).record((clock.millis() - timestamp) * 1_000);
+        }
+    }
+
+    private static LatencyHistogram histogram(Map<String, LatencyHistogram> histograms, String topic) {
+        return histograms.computeIfAbsent(topic, t -> new LatencyHistogram());
+    }
+
+    private static Map<String, LatencyHistogram.Snapshot> snapshot(Map<String, LatencyHistogram> histograms) {
+        Map<String, LatencyHistogram.Snapshot> snapshots = new TreeMap<>();
+        histograms.forEach((topic, histogram) -> snapshots.put(topic, histogram.snapshot()));
+        return snapshots;
+    }
+}
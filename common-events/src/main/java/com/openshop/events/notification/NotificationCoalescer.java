@@ -0,0 +1,242 @@
+package com.openshop.events.notification;
+
+import com.openshop.events.order.OrderNotificationBatchEvent;
+import com.openshop.events.order.OrderNotificationRequestEvent;
+import com.openshop.events.timer.TimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Collapses bursts of {@link OrderNotificationRequestEvent}s into one {@link OrderNotificationBatchEvent}
+ * per user.
+ * <p>
+ * The first notification of a user opens a window of {@link NotificationCoalescerSettings#getWindow()}.
+ * Within it, notifications are keyed by {@code userId} and {@code orderId} and a newer status replaces
+ * the one it supersedes ({@code ORDER_CANCELLED} over {@code ORDER_SHIPPED} over {@code ORDER_CONFIRMED},
+ * otherwise the later timestamp). When the window ends, the user's batch is sent to the sink. Memory is
+ * bounded by {@code maxPendingUsers} and {@code maxOrdersPerUser}; hitting either sends a batch early.
+ * <p>
+ * The sink is called from a single thread, so a user's batches arrive in order. Notifications without a
+ * {@code userId} cannot be grouped and are sent as a batch of one. {@link #close()} sends every pending batch.
+ */
+public class NotificationCoalescer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationCoalescer.class);
+
+    private static final Map<String, Integer> PRECEDENCE = Map.of(
+            "ORDER_CONFIRMED", 1,
+            "ORDER_SHIPPED", 2,
+            "ORDER_CANCELLED", 3);
+
+    private final NotificationCoalescerSettings settings;
+    private final Consumer<OrderNotificationBatchEvent> sink;
+    private final TimingWheel wheel;
+    private final ExecutorService sender;
+    private final LinkedHashMap<Long, PendingBatch> pending = new LinkedHashMap<>();
+
+    private boolean closed;
+    private long received;
+    private long batches;
+    private long superseded;
+    private long forcedFlushes;
+    private final AtomicLong sinkFailures = new AtomicLong();
+
+    public NotificationCoalescer(NotificationCoalescerSettings settings, Consumer<OrderNotificationBatchEvent> sink) {
+        this.settings = settings;
+        this.sink = sink;
+        this.wheel = new TimingWheel("notification-coalescer-wheel", settings.getTimerTick(), 512);
+        this.sender = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "notification-coalescer-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void submit(OrderNotificationRequestEvent notification) {
+        List<OrderNotificationBatchEvent> ready = new ArrayList<>(2);
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Notification coalescer is closed");
+            }
+            received++;
+            Long userId = notification.getUserId();
+            if (userId == null) {
+                PendingBatch single = new PendingBatch(null);
+                single.add(notification);
+                ready.add(single.toEvent());
+            } else {
+                PendingBatch batch = pending.get(userId);
+                if (batch == null) {
+                    if (pending.size() >= settings.getMaxPendingUsers()) {
+                        ready.add(evictOldest());
+                    }
+                    PendingBatch created = new PendingBatch(userId);
+                    created.timeout = wheel.schedule(() -> expire(userId, created), settings.getWindow());
+                    pending.put(userId, created);
+                    batch = created;
+                }
+                batch.add(notification);
+                if (batch.orders.size() >= settings.getMaxOrdersPerUser()) {
+                    pending.remove(userId);
+                    batch.timeout.cancel();
+                    forcedFlushes++;
+                    ready.add(batch.toEvent());
+                }
+            }
+            batches += ready.size();
+        }
+        ready.forEach(this::send);
+    }
+
+    /**
+     * Sends every pending batch now, without waiting for the windows to end.
+     */
+    public void flush() {
+        List<OrderNotificationBatchEvent> ready;
+        synchronized (this) {
+            ready = drain();
+        }
+        ready.forEach(this::send);
+    }
+
+    public synchronized NotificationCoalescerMetrics metrics() {
+        return new NotificationCoalescerMetrics(received, batches, superseded, forcedFlushes, sinkFailures.get(),
+                pending.size());
+    }
+
+    @Override
+    public void close() {
+        List<OrderNotificationBatchEvent> ready;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            ready = drain();
+        }
+        ready.forEach(this::send);
+        wheel.close();
+        sender.shutdown();
+        try {
+            if (!sender.awaitTermination(settings.getCloseTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Notification batches still being sent after {}", settings.getCloseTimeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<OrderNotificationBatchEvent> drain() {
+        List<OrderNotificationBatchEvent> ready = new ArrayList<>(pending.size());
+        for (PendingBatch batch : pending.values()) {
+            batch.timeout.cancel();
+            ready.add(batch.toEvent());
+        }
+        pending.clear();
+        batches += ready.size();
+        return ready;
+    }
+
+    private void expire(Long userId, PendingBatch batch) {
+        OrderNotificationBatchEvent event;
+        synchronized (this) {
+            // The batch may have been sent early and replaced by a newer one for the same user.
+            if (!pending.remove(userId, batch)) {
+                return;
+            }
+            batches++;
+            event = batch.toEvent();
+        }
+        send(event);
+    }
+
+    private OrderNotificationBatchEvent evictOldest() {
+        Iterator<PendingBatch> oldest = pending.values().iterator();
+        PendingBatch batch = oldest.next();
+        oldest.remove();
+        batch.timeout.cancel();
+        forcedFlushes++;
+        return batch.toEvent();
+    }
+
+    private void send(OrderNotificationBatchEvent event) {
+        try {
+            sender.execute(() -> deliver(event));
+        } catch (RejectedExecutionException e) {
+            // Raced with close(); the sender is gone, so deliver on the caller's thread.
+            deliver(event);
+        }
+    }
+
+    private void deliver(OrderNotificationBatchEvent event) {
+        try {
+            sink.accept(event);
+        } catch (RuntimeException e) {
+            sinkFailures.incrementAndGet();
+            log.error("Failed to send notification batch for user {}", event.getUserId(), e);
+        }
+    }
+
+    private static boolean supersedes(OrderNotificationRequestEvent candidate, OrderNotificationRequestEvent current) {
+        int candidateRank = PRECEDENCE.getOrDefault(candidate.getNotificationType(), 0);
+        int currentRank = PRECEDENCE.getOrDefault(current.getNotificationType(), 0);
+        if (candidateRank != currentRank) {
+            return candidateRank > currentRank;
+        }
+        long candidateTime = candidate.getTimestamp() == null ? Long.MIN_VALUE : candidate.getTimestamp();
+        long currentTime = current.getTimestamp() == null ? Long.MIN_VALUE : current.getTimestamp();
+        return candidateTime >= currentTime;
+    }
+
+    /** Guarded by the coalescer's monitor. */
+    private final class PendingBatch {
+        private final Long userId;
+        private final Map<UUID, OrderNotificationRequestEvent> orders = new LinkedHashMap<>();
+        private TimingWheel.Timeout timeout;
+        private String userEmail;
+        private int count;
+
+        private PendingBatch(Long userId) {
+            this.userId = userId;
+        }
+
+        private void add(OrderNotificationRequestEvent notification) {
+            count++;
+            if (notification.getUserEmail() != null) {
+                userEmail = notification.getUserEmail();
+            }
+            OrderNotificationRequestEvent current = orders.get(notification.getOrderId());
+            if (current == null) {
+                orders.put(notification.getOrderId(), notification);
+            } else {
+                superseded++;
+                if (supersedes(notification, current)) {
+                    orders.put(notification.getOrderId(), notification);
+                }
+            }
+        }
+
+        private OrderNotificationBatchEvent toEvent() {
+            return OrderNotificationBatchEvent.builder()
+                    .userId(userId)
+                    .userEmail(userEmail)
+                    .notifications(new ArrayList<>(orders.values()))
+                    .coalescedCount(count)
+                    .timestamp(System.currentTimeMillis())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.openshop.events.notification;
+
+import lombok.Value;
+
+/**
+ * Point-in-time counters of a {@link NotificationCoalescer}.
+ */
+@Value
+public class NotificationCoalescerMetrics {
+    long received;
+    /** Batches handed to the sink. */
+    long batches;
+    /** Notifications dropped because a later status of the same order replaced them. */
+    long superseded;
+    /** Batches sent before their window ended because a memory bound was hit. */
+    long forcedFlushes;
+    long sinkFailures;
+    int pendingUsers;
+
+    /** Individual sends avoided compared to sending every received notification. */
+    public long sendsSaved() {
+        return received - batches;
+    }
+}
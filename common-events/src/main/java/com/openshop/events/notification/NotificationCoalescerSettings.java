@@ -0,0 +1,29 @@
+package com.openshop.events.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationCoalescerSettings {
+    /** How long the first notification of a user waits for further status changes before the batch is sent. */
+    @Builder.Default
+    private Duration window = Duration.ofSeconds(30);
+    /** Users with a pending batch; when exceeded, the oldest batch is sent early. */
+    @Builder.Default
+    private int maxPendingUsers = 10_000;
+    /** Orders per user batch; when reached, the batch is sent early. */
+    @Builder.Default
+    private int maxOrdersPerUser = 20;
+    @Builder.Default
+    private Duration timerTick = Duration.ofMillis(100);
+    /** Longest time {@code close()} waits for the final batches to be handed to the sink. */
+    @Builder.Default
+    private Duration closeTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,35 @@
+package com.openshop.events.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reservations of one product for several orders, handled under a single stock row lock.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderInventoryReserveBatchRequestEvent {
+    private UUID batchId;
+    private UUID productId;
+    private Integer totalQuantity;
+    private List<Reservation> reservations; // in arrival order
+    private Long timestamp;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Reservation {
+        private UUID orderId;
+        private Long userId;
+        private Integer quantity;
+        private String correlationId;
+    }
+}
@@ -0,0 +1,23 @@
+package com.openshop.events.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Notifications of one user collected over a coalescing window, holding the latest status of each order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderNotificationBatchEvent {
+    private Long userId;
+    private String userEmail;
+    private List<OrderNotificationRequestEvent> notifications;
+    private Integer coalescedCount; // notifications received for this batch, including superseded ones
+    private Long timestamp;
+}
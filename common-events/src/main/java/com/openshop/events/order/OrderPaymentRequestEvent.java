@@ -1,5 +1,6 @@
 package com.openshop.events.order;
 
+import com.openshop.events.SagaEvent;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,7 +13,7 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class OrderPaymentRequestEvent {
+public class OrderPaymentRequestEvent implements SagaEvent {
     private UUID orderId;
     private Long userId;
     private Double amount;
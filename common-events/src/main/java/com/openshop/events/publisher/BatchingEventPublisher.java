@@ -0,0 +1,175 @@
+package com.openshop.events.publisher;
+
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Accumulates saga events per topic and hands them to the producer as one burst once either
+ * {@link PublisherSettings#getMaxBatchSize()} events are buffered or the oldest one has waited
+ * {@link PublisherSettings#getLinger()}.
+ * <p>
+ * Events are kept in publish order within a topic, so per-key ordering is preserved. Each
+ * {@link #publish} call gets its own future, completed when the broker acknowledges that record.
+ * Compression happens in the producer; configure it with {@link PublisherSettings#producerOverrides()}.
+ * <p>
+ * Appending only takes the topic buffer's monitor. Sending happens under a separate per-topic send lock,
+ * so a producer blocked on metadata or a full buffer delays the flushing thread only, not other
+ * publishers. A publish that finds a full buffer being sent by another thread leaves it to the
+ * linger timer, which also sends full buffers.
+ * The producer is owned by the caller and is not closed by {@link #close()}.
+ */
+public class BatchingEventPublisher<T> implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchingEventPublisher.class);
+
+    private final Producer<String, T> producer;
+    private final PublisherSettings settings;
+    private final PublisherMetrics metrics = new PublisherMetrics();
+    private final Map<String, TopicBuffer<T>> buffers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean closed;
+
+    public BatchingEventPublisher(Producer<String, T> producer, PublisherSettings settings) {
+        this.producer = producer;
+        this.settings = settings;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "event-publisher-linger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tickMicros = Math.max(100, settings.getLinger().toNanos() / 2_000);
+        scheduler.scheduleWithFixedDelay(this::flushExpired, tickMicros, tickMicros, TimeUnit.MICROSECONDS);
+    }
+
+    public CompletableFuture<RecordMetadata> publish(String topic, String key, T event) {
+        CompletableFuture<RecordMetadata> future = new CompletableFuture<>();
+        TopicBuffer<T> buffer = buffers.computeIfAbsent(topic, t -> new TopicBuffer<>());
+        boolean full;
+        synchronized (buffer) {
+            // Checked under the buffer monitor: close() sets the flag before draining every buffer,
+            // so an event either makes it into the final flush or is rejected here.
+            if (closed) {
+                future.completeExceptionally(new IllegalStateException("Publisher is closed"));
+                return future;
+            }
+            if (buffer.pending.isEmpty()) {
+                buffer.firstEnqueuedNanos = System.nanoTime();
+            }
+            buffer.pending.add(new PendingEvent<>(new ProducerRecord<>(topic, key, event), future));
+            full = buffer.pending.size() >= settings.getMaxBatchSize();
+        }
+        if (full && buffer.sendLock.tryLock()) {
+            try {
+                send(buffer);
+            } finally {
+                buffer.sendLock.unlock();
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Sends everything buffered so far, regardless of linger.
+     */
+    public void flush() {
+        for (TopicBuffer<T> buffer : buffers.values()) {
+            buffer.sendLock.lock();
+            try {
+                send(buffer);
+            } finally {
+                buffer.sendLock.unlock();
+            }
+        }
+        producer.flush();
+    }
+
+    public PublisherMetrics.Snapshot metrics() {
+        return metrics.snapshot();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        scheduler.shutdownNow();
+        flush();
+    }
+
+    private void flushExpired() {
+        long deadline = System.nanoTime() - settings.getLinger().toNanos();
+        for (TopicBuffer<T> buffer : buffers.values()) {
+            boolean due;
+            synchronized (buffer) {
+                due = !buffer.pending.isEmpty() && (buffer.firstEnqueuedNanos - deadline <= 0
+                        || buffer.pending.size() >= settings.getMaxBatchSize());
+            }
+            if (due) {
+                buffer.sendLock.lock();
+                try {
+                    send(buffer);
+                } finally {
+                    buffer.sendLock.unlock();
+                }
+            }
+        }
+    }
+
+    // Caller holds the buffer's send lock, which keeps sends for one topic in publish order.
+    private void send(TopicBuffer<T> buffer) {
+        List<PendingEvent<T>> batch;
+        long startNanos;
+        synchronized (buffer) {
+            if (buffer.pending.isEmpty()) {
+                return;
+            }
+            batch = buffer.pending;
+            startNanos = buffer.firstEnqueuedNanos;
+            buffer.pending = new ArrayList<>();
+        }
+        metrics.recordBatch(batch.size());
+
+        AtomicInteger outstanding = new AtomicInteger(batch.size());
+        for (PendingEvent<T> pending : batch) {
+            try {
+                producer.send(pending.record, (metadata, exception) -> {
+                    if (exception != null) {
+                        metrics.recordFailure();
+                        log.warn("Failed to publish event to topic {}", pending.record.topic(), exception);
+                        pending.future.completeExceptionally(exception);
+                    } else {
+                        pending.future.complete(metadata);
+                    }
+                    if (outstanding.decrementAndGet() == 0) {
+                        metrics.recordFlushLatency(System.nanoTime() - startNanos);
+                    }
+                });
+            } catch (RuntimeException e) {
+                metrics.recordFailure();
+                pending.future.completeExceptionally(e);
+                outstanding.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class TopicBuffer<T> {
+        private final ReentrantLock sendLock = new ReentrantLock();
+        private List<PendingEvent<T>> pending = new ArrayList<>();
+        private long firstEnqueuedNanos;
+    }
+
+    private record PendingEvent<T>(ProducerRecord<String, T> record, CompletableFuture<RecordMetadata> future) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.openshop.events.publisher;
+
+import lombok.Value;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Batch size and flush latency counters of a {@link BatchingEventPublisher}.
+ */
+public class PublisherMetrics {
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder events = new LongAdder();
+    private final LongAdder failedEvents = new LongAdder();
+    private final LongAdder flushLatencyNanos = new LongAdder();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+    private final AtomicLong maxFlushLatencyNanos = new AtomicLong();
+
+    void recordBatch(int size) {
+        batches.increment();
+        events.add(size);
+        maxBatchSize.accumulateAndGet(size, Math::max);
+    }
+
+    void recordFlushLatency(long nanos) {
+        flushLatencyNanos.add(nanos);
+        maxFlushLatencyNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    void recordFailure() {
+        failedEvents.increment();
+    }
+
+    public Snapshot snapshot() {
+        long batchCount = batches.sum();
+        long eventCount = events.sum();
+        return new Snapshot(
+                batchCount,
+                eventCount,
+                failedEvents.sum(),
+                batchCount == 0 ? 0 : (double) eventCount / batchCount,
+                maxBatchSize.get(),
+                batchCount == 0 ? 0 : flushLatencyNanos.sum() / batchCount / 1_000,
+                maxFlushLatencyNanos.get() / 1_000);
+    }
+
+    @Value
+    public static class Snapshot {
+        long batches;
+        long events;
+        long failedEvents;
+        double averageBatchSize;
+        long maxBatchSize;
+        /** From the first event entering the buffer to the broker acknowledging the last one. */
+        long averageFlushLatencyMicros;
+        long maxFlushLatencyMicros;
+    }
+}
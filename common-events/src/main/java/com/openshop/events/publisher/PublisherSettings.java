@@ -0,0 +1,42 @@
+package com.openshop.events.publisher;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublisherSettings {
+    /** Events buffered per topic before a flush is forced. */
+    @Builder.Default
+    private int maxBatchSize = 500;
+    /** Longest time an event may wait in the buffer before it is flushed. */
+    @Builder.Default
+    private Duration linger = Duration.ofMillis(5);
+    /** Compression codec applied by the producer to every flushed batch. */
+    @Builder.Default
+    private String compressionType = "lz4";
+
+    /**
+     * Producer properties that let a flushed batch leave as a single compressed record batch per partition.
+     * Merge these into the producer configuration handed to {@link BatchingEventPublisher}.
+     * <p>
+     * The publisher already lingers, so the producer sends each flushed burst right away
+     * ({@code linger.ms=0}); lingering in both places would double the worst-case latency.
+     */
+    public Map<String, Object> producerOverrides() {
+        Map<String, Object> overrides = new HashMap<>();
+        overrides.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        overrides.put(ProducerConfig.LINGER_MS_CONFIG, 0);
+        overrides.put(ProducerConfig.BATCH_SIZE_CONFIG, 256 * 1024);
+        return overrides;
+    }
+}
@@ -0,0 +1,93 @@
+package com.openshop.events.replay;
+
+import com.openshop.events.SagaEvent;
+import com.openshop.events.codec.EventCodecs;
+import com.openshop.events.topic.EventTopic;
+import com.openshop.events.topic.EventTopics;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Records live traffic into an event segment for later replay.
+ * <p>
+ * The consumer should use its own group id and {@code auto.offset.reset=latest} (or be positioned by
+ * the caller) so the capture does not affect the services' offsets. Each event is stored with its own
+ * {@code timestamp}, falling back to the record timestamp, so replays keep the original traffic shape.
+ * Events without a binary codec are skipped.
+ */
+public class EventCapture {
+
+    private static final Logger log = LoggerFactory.getLogger(EventCapture.class);
+
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+    private final Consumer<String, Object> consumer;
+    private final Duration pollTimeout;
+
+    public EventCapture(Consumer<String, Object> consumer, Duration pollTimeout) {
+        this.consumer = consumer;
+        this.pollTimeout = pollTimeout;
+    }
+
+    /**
+     * Captures all {@link EventTopics} topics.
+     */
+    public long capture(Path file, Duration duration, long maxEvents) throws IOException {
+        return capture(file, EventTopics.all().stream().map(EventTopic::getName).collect(Collectors.toList()),
+                duration, maxEvents, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Captures until {@code duration} has passed, {@code maxEvents} were written or the segment is full.
+     * The calling thread does the polling; {@link Consumer#wakeup()} stops the capture early.
+     *
+     * @return the number of events written
+     */
+    public long capture(Path file, Collection<String> topics, Duration duration, long maxEvents,
+                        int segmentSize) throws IOException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        long skipped = 0;
+        consumer.subscribe(topics);
+        try (EventSegmentWriter writer = new EventSegmentWriter(file, segmentSize)) {
+            try {
+                while (System.nanoTime() - deadline < 0 && writer.events() < maxEvents) {
+                    for (ConsumerRecord<String, Object> record : consumer.poll(pollTimeout)) {
+                        Object event = record.value();
+                        if (event == null || writer.events() >= maxEvents) {
+                            continue;
+                        }
+                        if (!writer.append(record.topic(), record.key(), timestampOf(record), event)) {
+                            if (EventCodecs.supports(event.getClass())) {
+                                log.warn("Capture segment {} is full after {} events", file, writer.events());
+                                return writer.events();
+                            }
+                            skipped++;
+                        }
+                    }
+                }
+            } catch (WakeupException e) {
+                // Stopped by the caller.
+            } finally {
+                consumer.unsubscribe();
+            }
+            log.info("Captured {} events to {} ({} bytes, {} skipped)", writer.events(), file, writer.size(), skipped);
+            return writer.events();
+        }
+    }
+
+    private static long timestampOf(ConsumerRecord<String, Object> record) {
+        if (record.value() instanceof SagaEvent event && event.getTimestamp() != null) {
+            return event.getTimestamp();
+        }
+        return record.timestamp();
+    }
+}
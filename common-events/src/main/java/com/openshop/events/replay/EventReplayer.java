@@ -0,0 +1,154 @@
+package com.openshop.events.replay;
+
+import com.openshop.events.SagaEvent;
+import com.openshop.events.inventory.InventoryReserveBatchResponseEvent;
+import com.openshop.events.latency.LatencyHistogram;
+import com.openshop.events.order.OrderInventoryReserveBatchRequestEvent;
+import com.openshop.events.order.OrderNotificationBatchEvent;
+import com.openshop.events.order.OrderNotificationRequestEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a captured segment into a {@link ReplayTarget}, preserving the gaps between the original
+ * event timestamps scaled by {@link ReplaySettings#getSpeed()}.
+ * <p>
+ * Events are dispatched in capture order from the calling thread. With id remapping, each original
+ * {@code orderId} and {@code correlationId} maps to a new value that is stable within one run, so all
+ * events of a saga still belong together; a record key equal to the order id is remapped with it. Ids
+ * nested in batch events are remapped the same way. With timestamp rebasing, the record and every event
+ * it carries are stamped with the dispatch time instead of the capture time.
+ */
+public class EventReplayer {
+
+    private final ReplayTarget target;
+    private final ReplaySettings settings;
+
+    public EventReplayer(ReplayTarget target, ReplaySettings settings) {
+        this.target = target;
+        this.settings = settings;
+    }
+
+    public ReplayReport replay(EventSegmentReader segment) throws InterruptedException {
+        String runSalt = UUID.randomUUID().toString();
+        LatencyHistogram latency = new LatencyHistogram();
+        Map<String, LatencyHistogram> latencyByTopic = new ConcurrentHashMap<>();
+        LongAdder delivered = new LongAdder();
+        LongAdder failed = new LongAdder();
+        long skipped = 0;
+        Semaphore inFlight = new Semaphore(settings.getMaxInFlight());
+
+        long firstTimestamp = -1;
+        long lastTimestamp = -1;
+        long started = System.nanoTime();
+        for (ReplayEvent event : segment) {
+            if (firstTimestamp < 0) {
+                firstTimestamp = event.getTimestamp();
+            }
+            lastTimestamp = Math.max(lastTimestamp, event.getTimestamp());
+            if (settings.getSpeed() > 0) {
+                long due = started + (long) ((event.getTimestamp() - firstTimestamp) * 1_000_000L / settings.getSpeed());
+                for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            if (settings.isRemapIds()) {
+                remap(event, runSalt);
+            }
+            if (settings.isRebaseTimestamps()) {
+                long now = System.currentTimeMillis();
+                event.setTimestamp(now);
+                rebase(event.getEvent(), now);
+            }
+
+            inFlight.acquire();
+            long dispatched = System.nanoTime();
+            CompletableFuture<?> done = target.deliver(event);
+            if (done == null) {
+                inFlight.release();
+                skipped++;
+                continue;
+            }
+            LatencyHistogram topicLatency = latencyByTopic.computeIfAbsent(event.getTopic(), t -> new LatencyHistogram());
+            done.whenComplete((result, e) -> {
+                long micros = (System.nanoTime() - dispatched) / 1_000;
+                latency.record(micros);
+                topicLatency.record(micros);
+                (e == null ? delivered : failed).increment();
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(settings.getMaxInFlight());
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        Map<String, LatencyHistogram.Snapshot> topicSnapshots = new LinkedHashMap<>();
+        latencyByTopic.forEach((topic, histogram) -> topicSnapshots.put(topic, histogram.snapshot()));
+        return new ReplayReport(delivered.sum(), failed.sum(), skipped, elapsed,
+                firstTimestamp < 0 ? 0 : lastTimestamp - firstTimestamp, latency.snapshot(), topicSnapshots);
+    }
+
+    private static void remap(ReplayEvent replayed, String runSalt) {
+        Object payload = replayed.getEvent();
+        if (payload instanceof SagaEvent event) {
+            UUID orderId = event.getOrderId();
+            if (orderId != null && orderId.toString().equals(replayed.getKey())) {
+                replayed.setKey(remapped(runSalt, orderId.toString()).toString());
+            }
+            remap(event, runSalt);
+        } else if (payload instanceof OrderInventoryReserveBatchRequestEvent batch && batch.getReservations() != null) {
+            for (OrderInventoryReserveBatchRequestEvent.Reservation reservation : batch.getReservations()) {
+                reservation.setOrderId(remapped(runSalt, reservation.getOrderId()));
+                reservation.setCorrelationId(remappedCorrelation(runSalt, reservation.getCorrelationId()));
+            }
+        } else if (payload instanceof InventoryReserveBatchResponseEvent batch && batch.getResults() != null) {
+            for (InventoryReserveBatchResponseEvent.ReservationResult result : batch.getResults()) {
+                result.setOrderId(remapped(runSalt, result.getOrderId()));
+            }
+        } else if (payload instanceof OrderNotificationBatchEvent batch && batch.getNotifications() != null) {
+            batch.getNotifications().forEach(notification -> remap(notification, runSalt));
+        }
+    }
+
+    private static void remap(SagaEvent event, String runSalt) {
+        event.setOrderId(remapped(runSalt, event.getOrderId()));
+        event.setCorrelationId(remappedCorrelation(runSalt, event.getCorrelationId()));
+    }
+
+    private static void rebase(Object payload, long timestamp) {
+        if (payload instanceof SagaEvent event) {
+            event.setTimestamp(timestamp);
+        } else if (payload instanceof OrderInventoryReserveBatchRequestEvent batch) {
+            batch.setTimestamp(timestamp);
+        } else if (payload instanceof InventoryReserveBatchResponseEvent batch) {
+            batch.setTimestamp(timestamp);
+        } else if (payload instanceof OrderNotificationBatchEvent batch) {
+            batch.setTimestamp(timestamp);
+            if (batch.getNotifications() != null) {
+                for (OrderNotificationRequestEvent notification : batch.getNotifications()) {
+                    notification.setTimestamp(timestamp);
+                }
+            }
+        }
+    }
+
+    private static UUID remapped(String runSalt, UUID original) {
+        return original == null ? null : remapped(runSalt, original.toString());
+    }
+
+    private static String remappedCorrelation(String runSalt, String original) {
+        return original == null ? null : remapped(runSalt, original).toString();
+    }
+
+    private static UUID remapped(String runSalt, String original) {
+        return UUID.nameUUIDFromBytes((runSalt + original).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,89 @@
+package com.openshop.events.replay;
+
+import com.openshop.events.codec.EventCodecs;
+import com.openshop.events.codec.EventReader;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a segment written by {@link EventSegmentWriter}. Every iteration decodes fresh event instances,
+ * so a replay may modify them.
+ */
+public class EventSegmentReader implements Iterable<ReplayEvent> {
+
+    private final MappedByteBuffer data;
+
+    public EventSegmentReader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            this.data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (data.remaining() < 5 || data.getInt(0) != EventSegmentWriter.MAGIC) {
+            throw new IOException("Not an event segment: " + file);
+        }
+        if (data.get(4) != EventSegmentWriter.VERSION) {
+            throw new IOException("Unsupported event segment version " + data.get(4) + " in " + file);
+        }
+    }
+
+    @Override
+    public Iterator<ReplayEvent> iterator() {
+        return new Iterator<>() {
+            private final List<String> topics = new ArrayList<>();
+            private int position = 5;
+            private long timestamp;
+            private ReplayEvent next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public ReplayEvent next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                ReplayEvent current = next;
+                next = advance();
+                return current;
+            }
+
+            private ReplayEvent advance() {
+                while (position + 4 <= data.limit()) {
+                    int length = data.getInt(position);
+                    if (length <= 0 || position + 4 + length > data.limit()) {
+                        return null;
+                    }
+                    byte type = data.get(position + 4);
+                    byte[] body = new byte[length - 1];
+                    data.get(position + 5, body);
+                    position += 4 + length;
+                    EventReader in = new EventReader(body);
+                    if (type == EventSegmentWriter.TOPIC_RECORD) {
+                        int index = in.readVarInt();
+                        String topic = in.readString();
+                        while (topics.size() <= index) {
+                            topics.add(null);
+                        }
+                        topics.set(index, topic);
+                    } else if (type == EventSegmentWriter.EVENT_RECORD) {
+                        String topic = topics.get(in.readVarInt());
+                        long delta = in.readVarLong();
+                        timestamp += (delta >>> 1) ^ -(delta & 1);
+                        String key = in.readString();
+                        return new ReplayEvent(topic, key, timestamp, EventCodecs.decode(in));
+                    }
+                }
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package com.openshop.events.replay;
+
+import com.openshop.events.codec.EventCodecs;
+import com.openshop.events.codec.EventWriter;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes captured events to a memory-mapped segment file.
+ * <p>
+ * Layout: {@code MAGIC | version}, then records of {@code length (int) | type (byte) | body}. Topic
+ * names are written once as a definition record and referenced by index; timestamps are stored as
+ * deltas to the previous event; events use the {@link EventCodecs} binary frame. A zero length marks
+ * the end. The file is mapped at {@code maxSize} up front and truncated to its real size on close.
+ */
+public class EventSegmentWriter implements AutoCloseable {
+
+    static final int MAGIC = 0x4F534556;
+    static final byte VERSION = 1;
+    static final byte TOPIC_RECORD = 1;
+    static final byte EVENT_RECORD = 2;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final Map<String, Integer> topicIndexes = new HashMap<>();
+    private final EventWriter scratch = new EventWriter(1024);
+    private long previousTimestamp;
+    private long events;
+
+    public EventSegmentWriter(Path file, int maxSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, maxSize);
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+    }
+
+    /**
+     * @return {@code false} if the event type has no binary codec or the segment is full
+     */
+    public boolean append(String topic, String key, long timestamp, Object event) {
+        if (!EventCodecs.supports(event.getClass())) {
+            return false;
+        }
+        Integer topicIndex = topicIndexes.get(topic);
+        if (topicIndex == null) {
+            topicIndex = topicIndexes.size();
+            scratch.reset();
+            scratch.writeVarInt(topicIndex);
+            scratch.writeString(topic);
+            if (!put(TOPIC_RECORD)) {
+                return false;
+            }
+            topicIndexes.put(topic, topicIndex);
+        }
+        scratch.reset();
+        scratch.writeVarInt(topicIndex);
+        long delta = timestamp - previousTimestamp;
+        scratch.writeVarLong((delta << 1) ^ (delta >> 63));
+        scratch.writeString(key);
+        EventCodecs.encode(event, scratch);
+        if (!put(EVENT_RECORD)) {
+            return false;
+        }
+        previousTimestamp = timestamp;
+        events++;
+        return true;
+    }
+
+    public long events() {
+        return events;
+    }
+
+    public long size() {
+        return buffer.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        long size = buffer.position();
+        buffer.force();
+        channel.truncate(size);
+        channel.close();
+    }
+
+    // Keeps four zero bytes free at the end so a reader always finds the terminating length.
+    private boolean put(byte type) {
+        byte[] body = scratch.toByteArray();
+        if (buffer.remaining() < 4 + 1 + body.length + 4) {
+            return false;
+        }
+        buffer.putInt(body.length + 1);
+        buffer.put(type);
+        buffer.put(body);
+        return true;
+    }
+}
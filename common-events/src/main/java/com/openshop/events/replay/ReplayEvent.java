@@ -0,0 +1,17 @@
+package com.openshop.events.replay;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One captured event with the topic and key it was consumed from.
+ */
+@Data
+@AllArgsConstructor
+public class ReplayEvent {
+    private String topic;
+    private String key;
+    /** Original event time in epoch millis, used to pace the replay. */
+    private long timestamp;
+    private Object event;
+}
@@ -0,0 +1,27 @@
+package com.openshop.events.replay;
+
+import com.openshop.events.latency.LatencyHistogram;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Outcome of one {@link EventReplayer} run. Latencies are measured from handing an event to the
+ * target until it completes, in microseconds.
+ */
+@Value
+public class ReplayReport {
+    long delivered;
+    long failed;
+    /** Events whose topic the target does not handle. */
+    long skipped;
+    long elapsedMillis;
+    /** Time between the first and last captured event, i.e. the duration of a 1x replay. */
+    long capturedSpanMillis;
+    LatencyHistogram.Snapshot latency;
+    Map<String, LatencyHistogram.Snapshot> latencyByTopic;
+
+    public double eventsPerSecond() {
+        return elapsedMillis == 0 ? 0 : (delivered + failed) * 1000.0 / elapsedMillis;
+    }
+}
@@ -0,0 +1,25 @@
+package com.openshop.events.replay;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplaySettings {
+    /** Replay speed relative to the capture: 1 is real time, 10 is ten times faster, 0 is as fast as possible. */
+    @Builder.Default
+    private double speed = 1.0;
+    /** Gives every captured order and correlation id a fresh value, so a replay does not collide with earlier runs. */
+    @Builder.Default
+    private boolean remapIds = false;
+    /** Stamps each event with its dispatch time, so deadlines and latencies measured from event timestamps hold. */
+    @Builder.Default
+    private boolean rebaseTimestamps = false;
+    /** Deliveries awaiting completion before the replayer waits; only matters for asynchronous targets. */
+    @Builder.Default
+    private int maxInFlight = 10_000;
+}
@@ -0,0 +1,89 @@
+package com.openshop.events.replay;
+
+import com.openshop.events.consumer.RecordHandler;
+import com.openshop.events.topic.EventTopic;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Where an {@link EventReplayer} delivers events.
+ */
+public interface ReplayTarget {
+
+    /**
+     * @return a future completing when the event was handled, or {@code null} if the target does not
+     *         handle the event's topic
+     */
+    CompletableFuture<?> deliver(ReplayEvent event);
+
+    /**
+     * Sends every event to its original topic, completing on the broker acknowledgement.
+     */
+    static ReplayTarget producer(Producer<String, Object> producer) {
+        return event -> {
+            CompletableFuture<Object> acked = new CompletableFuture<>();
+            producer.send(new ProducerRecord<>(event.getTopic(), event.getKey(), event.getEvent()), (metadata, e) -> {
+                if (e != null) {
+                    acked.completeExceptionally(e);
+                } else {
+                    acked.complete(metadata);
+                }
+            });
+            return acked;
+        };
+    }
+
+    static Handlers handlers() {
+        return new Handlers();
+    }
+
+    /**
+     * Calls consumer handlers directly on the replaying thread, without a broker. Each topic gets its
+     * own offset sequence on partition 0.
+     */
+    final class Handlers implements ReplayTarget {
+
+        private final Map<String, RecordHandler<Object>> handlers = new HashMap<>();
+        private final Map<String, AtomicLong> offsets = new HashMap<>();
+
+        private Handlers() {
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> Handlers on(EventTopic<T> topic, RecordHandler<T> handler) {
+            return on(topic.getName(), (RecordHandler<Object>) (RecordHandler<?>) handler);
+        }
+
+        public Handlers on(String topic, RecordHandler<Object> handler) {
+            handlers.put(topic, handler);
+            offsets.put(topic, new AtomicLong());
+            return this;
+        }
+
+        @Override
+        public CompletableFuture<?> deliver(ReplayEvent event) {
+            RecordHandler<Object> handler = handlers.get(event.getTopic());
+            if (handler == null) {
+                return null;
+            }
+            ConsumerRecord<String, Object> record = new ConsumerRecord<>(event.getTopic(), 0,
+                    offsets.get(event.getTopic()).getAndIncrement(), event.getTimestamp(), TimestampType.CREATE_TIME,
+                    -1, -1, event.getKey(), event.getEvent(), new RecordHeaders(), Optional.empty());
+            try {
+                handler.handle(record);
+                return CompletableFuture.completedFuture(null);
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.openshop.events.reservation;
+
+import com.openshop.events.inventory.InventoryReserveBatchResponseEvent;
+import com.openshop.events.order.OrderInventoryReserveBatchRequestEvent;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reserves stock for a batch of one product, e.g. with a single locked update of its stock row, or by
+ * publishing the batch and awaiting the response with the same {@code batchId}.
+ */
+@FunctionalInterface
+public interface BatchReserver {
+
+    /**
+     * @return the outcome, with one result per reservation in request order
+     */
+    CompletableFuture<InventoryReserveBatchResponseEvent> reserve(OrderInventoryReserveBatchRequestEvent batch);
+}
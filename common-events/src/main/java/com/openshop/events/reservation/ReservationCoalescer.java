@@ -0,0 +1,325 @@
+package com.openshop.events.reservation;
+
+import com.openshop.events.inventory.InventoryReserveBatchResponseEvent;
+import com.openshop.events.inventory.InventoryReserveResponseEvent;
+import com.openshop.events.order.OrderInventoryReserveBatchRequestEvent;
+import com.openshop.events.order.OrderInventoryReserveRequestEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Micro-batches inventory reservations by product so that a hot product takes one stock row lock per
+ * window instead of one per order.
+ * <p>
+ * Each item of a submitted {@link OrderInventoryReserveRequestEvent} joins the pending batch of its
+ * {@code productId}. A batch is handed to the {@link BatchReserver} once it holds
+ * {@link ReservationCoalescerSettings#getMaxBatchSize()} reservations or its oldest one has waited
+ * {@link ReservationCoalescerSettings#getWindow()}. When every item of an order has an outcome, the
+ * order's future completes with a regular {@link InventoryReserveResponseEvent}: {@code SUCCESS} if all
+ * items were reserved, otherwise {@code FAILED} with the per-item outcomes, so items that did get
+ * reserved can be restored by the saga as before.
+ */
+public class ReservationCoalescer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationCoalescer.class);
+
+    private final BatchReserver reserver;
+    private final ReservationCoalescerSettings settings;
+    private final Map<UUID, ProductBuffer> buffers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService workers;
+    private final LongAdder orders = new LongAdder();
+    private final LongAdder items = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final AtomicInteger pendingOrders = new AtomicInteger();
+    private volatile boolean closed;
+
+    public ReservationCoalescer(BatchReserver reserver, ReservationCoalescerSettings settings) {
+        this.reserver = reserver;
+        this.settings = settings;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "reservation-coalescer-window");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.workers = Executors.newFixedThreadPool(settings.getConcurrency(), r -> {
+            Thread thread = new Thread(r, "reservation-coalescer-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tickMicros = Math.max(100, settings.getWindow().toNanos() / 2_000);
+        scheduler.scheduleWithFixedDelay(this::flushExpired, tickMicros, tickMicros, TimeUnit.MICROSECONDS);
+    }
+
+    public CompletableFuture<InventoryReserveResponseEvent> submit(OrderInventoryReserveRequestEvent request) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Reservation coalescer is closed"));
+        }
+        List<OrderInventoryReserveRequestEvent.InventoryItem> requested =
+                request.getItems() == null ? Collections.emptyList() : request.getItems();
+        PendingOrder order = new PendingOrder(request, requested.size());
+        orders.increment();
+        items.add(requested.size());
+        if (requested.isEmpty()) {
+            order.future.complete(order.toResponse());
+            return order.future;
+        }
+        pendingOrders.incrementAndGet();
+        if (requested.stream().anyMatch(item -> item == null || item.getProductId() == null)) {
+            // Nothing was reserved, so the saga has nothing to restore.
+            for (int index = 0; index < requested.size(); index++) {
+                order.record(index, requested.get(index), false, "Reservation item without a productId");
+            }
+            return order.future;
+        }
+        for (int index = 0; index < requested.size(); index++) {
+            enqueue(new PendingItem(order, index, requested.get(index)));
+        }
+        return order.future;
+    }
+
+    /**
+     * Sends every pending batch now, regardless of the window.
+     */
+    public void flush() {
+        for (ProductBuffer buffer : buffers.values()) {
+            List<PendingItem> batch;
+            synchronized (buffer) {
+                batch = buffer.drain();
+            }
+            dispatch(batch);
+        }
+    }
+
+    public ReservationCoalescerMetrics metrics() {
+        return new ReservationCoalescerMetrics(orders.sum(), items.sum(), batches.sum(), failedBatches.sum(),
+                pendingOrders.get());
+    }
+
+    /**
+     * Sends the pending batches and waits up to {@link ReservationCoalescerSettings#getCloseTimeout()} for
+     * every submitted order to complete.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        scheduler.shutdownNow();
+        flush();
+        workers.shutdown();
+        long deadline = System.nanoTime() + settings.getCloseTimeout().toNanos();
+        try {
+            workers.awaitTermination(settings.getCloseTimeout().toNanos(), TimeUnit.NANOSECONDS);
+            synchronized (pendingOrders) {
+                for (long wait = deadline - System.nanoTime(); pendingOrders.get() > 0 && wait > 0;
+                     wait = deadline - System.nanoTime()) {
+                    TimeUnit.NANOSECONDS.timedWait(pendingOrders, wait);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (pendingOrders.get() > 0) {
+            log.warn("Reservation coalescer closed with {} orders still awaiting the reserver", pendingOrders.get());
+        }
+    }
+
+    private void enqueue(PendingItem item) {
+        UUID productId = item.item().getProductId();
+        while (true) {
+            ProductBuffer buffer = buffers.computeIfAbsent(productId, p -> new ProductBuffer());
+            List<PendingItem> full = null;
+            boolean rejected = false;
+            synchronized (buffer) {
+                if (buffer.retired) {
+                    continue;
+                }
+                // Checked under the buffer lock: close() sets the flag before its flush drains the buffers,
+                // so an item that got past submit's check is either drained or rejected here.
+                if (closed) {
+                    rejected = true;
+                } else {
+                    if (buffer.pending.isEmpty()) {
+                        buffer.firstEnqueuedNanos = System.nanoTime();
+                    }
+                    buffer.pending.add(item);
+                    if (buffer.pending.size() >= settings.getMaxBatchSize()) {
+                        full = buffer.drain();
+                    }
+                }
+            }
+            if (rejected) {
+                item.order().record(item.index(), item.item(), false, "Reservation coalescer is closed");
+                return;
+            }
+            dispatch(full);
+            return;
+        }
+    }
+
+    private void flushExpired() {
+        long deadline = System.nanoTime() - settings.getWindow().toNanos();
+        Iterator<ProductBuffer> iterator = buffers.values().iterator();
+        while (iterator.hasNext()) {
+            ProductBuffer buffer = iterator.next();
+            List<PendingItem> expired = null;
+            synchronized (buffer) {
+                if (buffer.pending.isEmpty()) {
+                    // Idle product; drop its buffer so the map does not grow with the catalogue.
+                    buffer.retired = true;
+                    iterator.remove();
+                } else if (buffer.firstEnqueuedNanos - deadline <= 0) {
+                    expired = buffer.drain();
+                }
+            }
+            dispatch(expired);
+        }
+    }
+
+    private void dispatch(List<PendingItem> batch) {
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+        batches.increment();
+        List<OrderInventoryReserveBatchRequestEvent.Reservation> reservations = new ArrayList<>(batch.size());
+        int totalQuantity = 0;
+        for (PendingItem pending : batch) {
+            OrderInventoryReserveRequestEvent request = pending.order().request;
+            Integer quantity = pending.item().getQuantity();
+            totalQuantity += quantity == null ? 0 : quantity;
+            reservations.add(OrderInventoryReserveBatchRequestEvent.Reservation.builder()
+                    .orderId(request.getOrderId())
+                    .userId(request.getUserId())
+                    .quantity(quantity)
+                    .correlationId(request.getCorrelationId())
+                    .build());
+        }
+        OrderInventoryReserveBatchRequestEvent request = OrderInventoryReserveBatchRequestEvent.builder()
+                .batchId(UUID.randomUUID())
+                .productId(batch.get(0).item().getProductId())
+                .totalQuantity(totalQuantity)
+                .reservations(reservations)
+                .timestamp(System.currentTimeMillis())
+                .build();
+        try {
+            workers.execute(() -> reserve(request, batch));
+        } catch (RejectedExecutionException e) {
+            // Closing; run the final batches on the caller's thread.
+            reserve(request, batch);
+        }
+    }
+
+    private void reserve(OrderInventoryReserveBatchRequestEvent request, List<PendingItem> batch) {
+        CompletableFuture<InventoryReserveBatchResponseEvent> response;
+        try {
+            response = reserver.reserve(request);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((result, e) -> {
+            String failure = null;
+            if (e != null) {
+                log.warn("Batch reservation {} of product {} failed", request.getBatchId(), request.getProductId(), e);
+                failure = "Inventory reservation failed: " + e.getMessage();
+            } else if (result.getFailureReason() != null) {
+                failure = result.getFailureReason();
+            } else if (result.getResults() == null || result.getResults().size() != batch.size()) {
+                failure = "Inventory returned " + (result.getResults() == null ? 0 : result.getResults().size())
+                        + " results for " + batch.size() + " reservations";
+            }
+            if (failure != null) {
+                failedBatches.increment();
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                PendingItem pending = batch.get(i);
+                if (failure != null) {
+                    pending.order().record(pending.index(), pending.item(), false, failure);
+                } else {
+                    InventoryReserveBatchResponseEvent.ReservationResult outcome = result.getResults().get(i);
+                    pending.order().record(pending.index(), pending.item(), outcome.isReserved(),
+                            outcome.getFailureReason());
+                }
+            }
+        });
+    }
+
+    /** Guarded by its own monitor. */
+    private static final class ProductBuffer {
+        private List<PendingItem> pending = new ArrayList<>();
+        private long firstEnqueuedNanos;
+        private boolean retired;
+
+        private List<PendingItem> drain() {
+            List<PendingItem> batch = pending;
+            pending = new ArrayList<>();
+            return batch;
+        }
+    }
+
+    private record PendingItem(PendingOrder order, int index, OrderInventoryReserveRequestEvent.InventoryItem item) {
+    }
+
+    private final class PendingOrder {
+        private final OrderInventoryReserveRequestEvent request;
+        private final InventoryReserveResponseEvent.ReservedItem[] outcomes;
+        private final AtomicInteger remaining;
+        private final CompletableFuture<InventoryReserveResponseEvent> future = new CompletableFuture<>();
+        private volatile String failureReason;
+
+        private PendingOrder(OrderInventoryReserveRequestEvent request, int itemCount) {
+            this.request = request;
+            this.outcomes = new InventoryReserveResponseEvent.ReservedItem[itemCount];
+            this.remaining = new AtomicInteger(itemCount);
+        }
+
+        private void record(int index, OrderInventoryReserveRequestEvent.InventoryItem item, boolean reserved,
+                            String reason) {
+            outcomes[index] = InventoryReserveResponseEvent.ReservedItem.builder()
+                    .productId(item == null ? null : item.getProductId())
+                    .quantity(item == null ? null : item.getQuantity())
+                    .reserved(reserved)
+                    .build();
+            if (!reserved && failureReason == null) {
+                failureReason = reason == null ? "Insufficient stock for product " + item.getProductId() : reason;
+            }
+            // The decrement publishes the outcome and reason written above to the thread completing the order.
+            if (remaining.decrementAndGet() == 0) {
+                future.complete(toResponse());
+                if (pendingOrders.decrementAndGet() == 0 && closed) {
+                    synchronized (pendingOrders) {
+                        pendingOrders.notifyAll();
+                    }
+                }
+            }
+        }
+
+        private InventoryReserveResponseEvent toResponse() {
+            return InventoryReserveResponseEvent.builder()
+                    .orderId(request.getOrderId())
+                    .userId(request.getUserId())
+                    .status(failureReason == null ? "SUCCESS" : "FAILED")
+                    .failureReason(failureReason)
+                    .reservedItems(Arrays.asList(outcomes))
+                    .correlationId(request.getCorrelationId())
+                    .timestamp(System.currentTimeMillis())
+                    .build();
+        }
+    }
+}
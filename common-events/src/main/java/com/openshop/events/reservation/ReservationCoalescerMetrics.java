@@ -0,0 +1,21 @@
+package com.openshop.events.reservation;
+
+import lombok.Value;
+
+/**
+ * Point-in-time counters of a {@link ReservationCoalescer}.
+ */
+@Value
+public class ReservationCoalescerMetrics {
+    long orders;
+    /** Order items submitted, i.e. the reservations an unbatched inventory service would run. */
+    long items;
+    /** Product batches sent to the {@link BatchReserver}. */
+    long batches;
+    long failedBatches;
+    int pendingOrders;
+
+    public double averageBatchSize() {
+        return batches == 0 ? 0 : (double) items / batches;
+    }
+}
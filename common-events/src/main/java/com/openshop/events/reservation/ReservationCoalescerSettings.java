@@ -0,0 +1,27 @@
+package com.openshop.events.reservation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationCoalescerSettings {
+    /** Longest time a reservation waits for others of the same product before its batch is sent. */
+    @Builder.Default
+    private Duration window = Duration.ofMillis(2);
+    /** Reservations per product batch; when reached, the batch is sent without waiting for the window. */
+    @Builder.Default
+    private int maxBatchSize = 200;
+    /** Threads calling the {@link BatchReserver}; batches of different products run in parallel. */
+    @Builder.Default
+    private int concurrency = 4;
+    /** Longest time {@code close()} waits for the reservations already sent to complete. */
+    @Builder.Default
+    private Duration closeTimeout = Duration.ofSeconds(10);
+}
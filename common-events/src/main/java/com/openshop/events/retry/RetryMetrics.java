@@ -0,0 +1,18 @@
+package com.openshop.events.retry;
+
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Point-in-time counters of the retry subsystem, keyed by original topic.
+ */
+@Value
+public class RetryMetrics {
+    Map<String, Long> retries;
+    Map<String, Long> deadLetters;
+    /** Retry records handled successfully. */
+    long redelivered;
+    /** Retry records waiting for their due time or running. */
+    int pending;
+}
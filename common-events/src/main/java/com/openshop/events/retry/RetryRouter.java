@@ -0,0 +1,137 @@
+package com.openshop.events.retry;
+
+import com.openshop.events.consumer.RecordErrorHandler;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link RecordErrorHandler} that moves a failed record to the next retry tier instead of retrying
+ * in place, so one bad order never blocks its partition. After the last tier the record goes to the
+ * dead-letter topic together with the failure reason.
+ * <p>
+ * The send is awaited: if it fails this handler throws and the consumer does not commit past the record.
+ */
+public class RetryRouter<T> implements RecordErrorHandler<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(RetryRouter.class);
+
+    private static final int MAX_REASON_LENGTH = 1024;
+
+    private final Producer<String, T> producer;
+    private final RetrySettings settings;
+    private final Map<String, LongAdder> retries = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> deadLetters = new ConcurrentHashMap<>();
+
+    public RetryRouter(Producer<String, T> producer, RetrySettings settings) {
+        this.producer = producer;
+        this.settings = settings;
+    }
+
+    @Override
+    public void handle(ConsumerRecord<String, T> record, Exception exception) {
+        int attempt = intHeader(record.headers(), RetryTopics.ATTEMPT_HEADER);
+        String originalTopic = stringHeader(record.headers(), RetryTopics.ORIGINAL_TOPIC_HEADER);
+        if (originalTopic == null) {
+            originalTopic = record.topic();
+        }
+
+        List<Duration> tiers = settings.getTiers();
+        boolean deadLetter = attempt >= tiers.size();
+        Headers headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith("openshop-retry-")) {
+                headers.add(header);
+            }
+        }
+        headers.add(RetryTopics.ORIGINAL_TOPIC_HEADER, bytes(originalTopic));
+        headers.add(RetryTopics.EXCEPTION_HEADER, bytes(exception.getClass().getName()));
+        headers.add(RetryTopics.REASON_HEADER, bytes(reasonOf(exception)));
+
+        String target;
+        if (deadLetter) {
+            target = RetryTopics.deadLetterTopic(originalTopic);
+            headers.add(RetryTopics.ATTEMPT_HEADER, bytes(String.valueOf(attempt)));
+        } else {
+            Duration delay = tiers.get(attempt);
+            target = RetryTopics.retryTopic(originalTopic, delay);
+            headers.add(RetryTopics.ATTEMPT_HEADER, bytes(String.valueOf(attempt + 1)));
+            headers.add(RetryTopics.DUE_AT_HEADER, bytes(String.valueOf(System.currentTimeMillis() + delay.toMillis())));
+        }
+
+        try {
+            producer.send(new ProducerRecord<>(target, null, record.key(), record.value(), headers))
+                    .get(settings.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while routing record to " + target, e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to route record to " + target, e);
+        }
+
+        if (deadLetter) {
+            deadLetters.computeIfAbsent(originalTopic, t -> new LongAdder()).increment();
+            log.error("Record {}-{}@{} dead-lettered to {} after {} attempts", record.topic(), record.partition(),
+                    record.offset(), target, attempt, exception);
+        } else {
+            retries.computeIfAbsent(originalTopic, t -> new LongAdder()).increment();
+            log.warn("Record {}-{}@{} scheduled for retry {} on {}: {}", record.topic(), record.partition(),
+                    record.offset(), attempt + 1, target, exception.toString());
+        }
+    }
+
+    /**
+     * Retries routed per original topic.
+     */
+    public Map<String, Long> retries() {
+        return sums(retries);
+    }
+
+    /**
+     * Records dead-lettered per original topic.
+     */
+    public Map<String, Long> deadLetters() {
+        return sums(deadLetters);
+    }
+
+    static int intHeader(Headers headers, String key) {
+        String value = stringHeader(headers, key);
+        return value == null ? 0 : Integer.parseInt(value);
+    }
+
+    static String stringHeader(Headers headers, String key) {
+        Header header = headers.lastHeader(key);
+        return header == null || header.value() == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, Long> sums(Map<String, LongAdder> counters) {
+        Map<String, Long> sums = new TreeMap<>();
+        counters.forEach((topic, counter) -> sums.put(topic, counter.sum()));
+        return sums;
+    }
+
+    private static String reasonOf(Exception exception) {
+        String reason = exception.getMessage() != null ? exception.getMessage() : exception.getClass().getSimpleName();
+        return reason.length() > MAX_REASON_LENGTH ? reason.substring(0, MAX_REASON_LENGTH) : reason;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
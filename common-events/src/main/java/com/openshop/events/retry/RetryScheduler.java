@@ -0,0 +1,240 @@
+package com.openshop.events.retry;
+
+import com.openshop.events.consumer.OffsetTracker;
+import com.openshop.events.consumer.RecordHandler;
+import com.openshop.events.timer.TimingWheel;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Consumes the retry tier topics and hands each record back to the handler once its delay is over.
+ * <p>
+ * Records are parked on a {@link TimingWheel} rather than sleeping a consumer thread, so one poll
+ * thread can hold thousands of delayed records. The handler sees the record under its original topic.
+ * A redelivery that fails again goes through the {@link RetryRouter} to the next tier or the
+ * dead-letter topic. Offsets are committed only below records that are not yet redelivered.
+ * Redelivery is not ordered against newer events of the same key.
+ * <p>
+ * The scheduler takes ownership of the consumer and closes it on {@link #close()}.
+ */
+public class RetryScheduler<T> implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RetryScheduler.class);
+
+    private final Consumer<String, T> consumer;
+    private final RecordHandler<T> handler;
+    private final RetryRouter<T> router;
+    private final RetrySettings settings;
+    private final TimingWheel wheel;
+    private final ExecutorService workers;
+    private final Map<TopicPartition, OffsetTracker> offsets = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder redelivered = new LongAdder();
+
+    private volatile boolean running;
+    private boolean paused;
+    private Thread pollThread;
+
+    public RetryScheduler(Consumer<String, T> consumer, RecordHandler<T> handler, RetryRouter<T> router,
+                          RetrySettings settings) {
+        this.consumer = consumer;
+        this.handler = handler;
+        this.router = router;
+        this.settings = settings;
+        this.wheel = new TimingWheel("retry-scheduler-wheel", settings.getTimerTick(), 1024);
+        this.workers = Executors.newFixedThreadPool(settings.getConcurrency(), r -> {
+            Thread thread = new Thread(r, "retry-scheduler-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param topics the original topics, e.g. from {@code KafkaTopics}; their retry tiers are subscribed
+     */
+    public synchronized void start(Collection<String> topics) {
+        if (running) {
+            throw new IllegalStateException("Retry scheduler already started");
+        }
+        running = true;
+        pollThread = new Thread(() -> {
+            consumer.subscribe(RetryTopics.retryTopics(topics, settings), new RebalanceListener());
+            pollLoop();
+        }, "retry-scheduler-poller");
+        pollThread.start();
+    }
+
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = pollThread;
+        }
+        if (thread != null) {
+            consumer.wakeup();
+            try {
+                thread.join(settings.getSendTimeout().toMillis() + settings.getPollTimeout().toMillis() * 2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        wheel.close();
+        workers.shutdown();
+    }
+
+    public RetryMetrics metrics() {
+        return new RetryMetrics(router.retries(), router.deadLetters(), redelivered.sum(), pending.get());
+    }
+
+    private void pollLoop() {
+        long nextCommit = System.nanoTime() + settings.getCommitInterval().toNanos();
+        try {
+            while (running) {
+                for (ConsumerRecord<String, T> record : consumer.poll(settings.getPollTimeout())) {
+                    park(record);
+                }
+                applyBackpressure();
+                if (System.nanoTime() - nextCommit >= 0) {
+                    commit(offsets.keySet(), false);
+                    nextCommit = System.nanoTime() + settings.getCommitInterval().toNanos();
+                }
+            }
+        } catch (WakeupException e) {
+            if (running) {
+                throw e;
+            }
+        } finally {
+            try {
+                commit(offsets.keySet(), true);
+            } finally {
+                consumer.close();
+            }
+        }
+    }
+
+    private void park(ConsumerRecord<String, T> record) {
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        OffsetTracker tracker = offsets.computeIfAbsent(partition, p -> new OffsetTracker());
+        tracker.track(record.offset());
+        pending.incrementAndGet();
+
+        String dueAt = RetryRouter.stringHeader(record.headers(), RetryTopics.DUE_AT_HEADER);
+        long delay = dueAt == null ? 0 : Math.max(0, Long.parseLong(dueAt) - System.currentTimeMillis());
+        wheel.schedule(() -> workers.execute(() -> redeliver(record, partition, tracker)), Duration.ofMillis(delay));
+    }
+
+    private void redeliver(ConsumerRecord<String, T> record, TopicPartition partition, OffsetTracker tracker) {
+        try {
+            if (offsets.get(partition) != tracker) {
+                // Partition was revoked while the record was parked; the new owner re-reads it.
+                return;
+            }
+            try {
+                handler.handle(asOriginal(record));
+                redelivered.increment();
+            } catch (Exception e) {
+                try {
+                    router.handle(record, e);
+                } catch (RuntimeException routingFailure) {
+                    // Not handed off; park it again rather than committing past it or pinning the partition.
+                    log.error("Failed to route retry record {}-{}@{}; redelivering it in {}",
+                            record.topic(), record.partition(), record.offset(), settings.getTiers().get(0),
+                            routingFailure);
+                    if (running) {
+                        pending.incrementAndGet();
+                        wheel.schedule(() -> workers.execute(() -> redeliver(record, partition, tracker)),
+                                settings.getTiers().get(0));
+                    }
+                    return;
+                }
+            }
+            tracker.complete(record.offset());
+        } finally {
+            pending.decrementAndGet();
+        }
+    }
+
+    private ConsumerRecord<String, T> asOriginal(ConsumerRecord<String, T> record) {
+        String originalTopic = RetryRouter.stringHeader(record.headers(), RetryTopics.ORIGINAL_TOPIC_HEADER);
+        if (originalTopic == null) {
+            return record;
+        }
+        return new ConsumerRecord<>(originalTopic, record.partition(), record.offset(), record.timestamp(),
+                record.timestampType(), record.serializedKeySize(), record.serializedValueSize(), record.key(),
+                record.value(), record.headers(), Optional.empty());
+    }
+
+    private void applyBackpressure() {
+        int parked = pending.get();
+        if (!paused && parked >= settings.getMaxPending()) {
+            consumer.pause(consumer.assignment());
+            paused = true;
+        } else if (paused && parked <= settings.getMaxPending() / 2) {
+            consumer.resume(consumer.paused());
+            paused = false;
+        }
+    }
+
+    private void commit(Collection<TopicPartition> partitions, boolean sync) {
+        Map<TopicPartition, OffsetAndMetadata> commits = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            OffsetTracker tracker = offsets.get(partition);
+            long committable = tracker == null ? -1 : tracker.nextCommit();
+            if (committable >= 0) {
+                commits.put(partition, new OffsetAndMetadata(committable));
+            }
+        }
+        if (commits.isEmpty()) {
+            return;
+        }
+        if (sync) {
+            consumer.commitSync(commits);
+        } else {
+            consumer.commitAsync(commits, (committed, e) -> {
+                if (e != null) {
+                    log.warn("Async offset commit failed for {}", committed.keySet(), e);
+                }
+            });
+        }
+    }
+
+    private final class RebalanceListener implements ConsumerRebalanceListener {
+
+        @Override
+        public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+            commit(partitions, true);
+            partitions.forEach(offsets::remove);
+        }
+
+        @Override
+        public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+            if (paused) {
+                consumer.pause(partitions);
+            }
+        }
+
+        @Override
+        public void onPartitionsLost(Collection<TopicPartition> partitions) {
+            partitions.forEach(offsets::remove);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.openshop.events.retry;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetrySettings {
+    /** Delay of each retry tier; a record that fails on the last tier goes to the dead-letter topic. */
+    @Builder.Default
+    private List<Duration> tiers = List.of(Duration.ofSeconds(1), Duration.ofSeconds(10), Duration.ofSeconds(60));
+    /** Upper bound for routing a failed record; the consumer offset only moves on once it is acknowledged. */
+    @Builder.Default
+    private Duration sendTimeout = Duration.ofSeconds(10);
+    /** Retry records held for redelivery before the scheduler pauses fetching. */
+    @Builder.Default
+    private int maxPending = 10_000;
+    @Builder.Default
+    private int concurrency = 8;
+    @Builder.Default
+    private Duration pollTimeout = Duration.ofMillis(100);
+    @Builder.Default
+    private Duration commitInterval = Duration.ofSeconds(1);
+    @Builder.Default
+    private Duration timerTick = Duration.ofMillis(50);
+}
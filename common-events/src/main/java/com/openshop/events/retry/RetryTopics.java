@@ -0,0 +1,51 @@
+package com.openshop.events.retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Naming of retry and dead-letter topics derived from a {@code KafkaTopics} topic, e.g.
+ * {@code order.payment.request.retry.10s} and {@code order.payment.request.dlq}.
+ */
+public final class RetryTopics {
+
+    public static final String ATTEMPT_HEADER = "openshop-retry-attempt";
+    public static final String ORIGINAL_TOPIC_HEADER = "openshop-retry-original-topic";
+    public static final String DUE_AT_HEADER = "openshop-retry-due-at";
+    public static final String EXCEPTION_HEADER = "openshop-retry-exception";
+    public static final String REASON_HEADER = "openshop-retry-reason";
+
+    private RetryTopics() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static String retryTopic(String topic, Duration delay) {
+        return topic + ".retry." + format(delay);
+    }
+
+    public static String deadLetterTopic(String topic) {
+        return topic + ".dlq";
+    }
+
+    /**
+     * All retry tier topics of the given topics, to subscribe a {@link RetryScheduler} to.
+     */
+    public static List<String> retryTopics(Collection<String> topics, RetrySettings settings) {
+        List<String> retryTopics = new ArrayList<>();
+        for (String topic : topics) {
+            for (Duration delay : settings.getTiers()) {
+                retryTopics.add(retryTopic(topic, delay));
+            }
+        }
+        return retryTopics;
+    }
+
+    private static String format(Duration delay) {
+        if (delay.toMillis() % 1000 != 0) {
+            return delay.toMillis() + "ms";
+        }
+        return delay.getSeconds() + "s";
+    }
+}
@@ -0,0 +1,165 @@
+package com.openshop.events.saga;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped log backing {@link SagaStateStore}.
+ * <p>
+ * Record layout: {@code length (int) | crc32c (int) | type (byte) | payload}. The length is written
+ * last, so a torn append reads back as a zero length and marks the end of the log.
+ */
+final class SagaLog implements AutoCloseable {
+
+    static final byte STATE = 1;
+    static final byte REMOVE = 2;
+
+    private static final int HEADER_SIZE = 9;
+    private static final String PREFIX = "saga-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean force;
+    private long generation;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    interface RecordVisitor {
+        void visit(byte type, byte[] payload);
+    }
+
+    SagaLog(Path directory, int segmentSize, boolean force) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.force = force;
+    }
+
+    /**
+     * Replays every segment in generation order. Call {@link #rewrite} afterwards to open a fresh segment.
+     */
+    void replay(RecordVisitor visitor) throws IOException {
+        Files.createDirectories(directory);
+        for (Path segment : segments()) {
+            generation = Math.max(generation, generationOf(segment));
+            try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+                MappedByteBuffer data = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+                while (data.remaining() >= HEADER_SIZE) {
+                    int length = data.getInt();
+                    if (length <= 0 || length > data.remaining() - 5) {
+                        break;
+                    }
+                    int crc = data.getInt();
+                    byte type = data.get();
+                    byte[] payload = new byte[length];
+                    data.get(payload);
+                    if (checksum(type, payload) != crc) {
+                        break;
+                    }
+                    visitor.visit(type, payload);
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends a record, returning {@code false} when the current segment is full.
+     */
+    boolean append(byte type, byte[] payload) {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_SIZE + payload.length) {
+            return false;
+        }
+        buffer.position(start + 4);
+        buffer.putInt(checksum(type, payload));
+        buffer.put(type);
+        buffer.put(payload);
+        buffer.putInt(start, payload.length);
+        if (force) {
+            buffer.force();
+        }
+        return true;
+    }
+
+    /**
+     * Starts a new segment holding only {@code liveStates}, then deletes all older segments.
+     */
+    void rewrite(Collection<byte[]> liveStates) throws IOException {
+        long required = HEADER_SIZE;
+        for (byte[] state : liveStates) {
+            required += HEADER_SIZE + state.length;
+        }
+        long size = Math.max(segmentSize, required * 2);
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Live saga state of " + required + " bytes exceeds a single segment");
+        }
+
+        generation++;
+        Path next = directory.resolve(String.format("%s%020d%s", PREFIX, generation, SUFFIX));
+        FileChannel nextChannel = FileChannel.open(next, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer nextBuffer = nextChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        FileChannel previous = channel;
+        channel = nextChannel;
+        buffer = nextBuffer;
+        for (byte[] state : liveStates) {
+            append(STATE, state);
+        }
+        buffer.force();
+
+        if (previous != null) {
+            previous.close();
+        }
+        for (Path segment : segments()) {
+            if (generationOf(segment) < generation) {
+                Files.deleteIfExists(segment);
+            }
+        }
+    }
+
+    int used() {
+        return buffer == null ? 0 : buffer.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(p -> p.getFileName().toString().startsWith(PREFIX))
+                    .filter(p -> p.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long generationOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private static int checksum(byte type, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(type);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,53 @@
+package com.openshop.events.saga;
+
+import com.openshop.events.inventory.InventoryRestoreRequestEvent;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-flight state of one order saga, plus the data needed to compensate its completed steps.
+ */
+@Data
+@NoArgsConstructor
+public class SagaState {
+    private String correlationId;
+    private UUID orderId;
+    private Long userId;
+    private long startedAt;
+    private long updatedAt;
+    private Map<SagaStep, StepStatus> steps = new EnumMap<>(SagaStep.class);
+    /** Epoch millis after which a {@link StepStatus#PENDING} step times out. */
+    private Map<SagaStep, Long> deadlines = new EnumMap<>(SagaStep.class);
+    private String transactionId;
+    private Double amount;
+    private List<InventoryRestoreRequestEvent.RestoreItem> reservedItems = new ArrayList<>();
+
+    public StepStatus status(SagaStep step) {
+        return steps.get(step);
+    }
+
+    public boolean hasPendingSteps() {
+        return steps.containsValue(StepStatus.PENDING);
+    }
+
+    public SagaState copy() {
+        SagaState copy = new SagaState();
+        copy.correlationId = correlationId;
+        copy.orderId = orderId;
+        copy.userId = userId;
+        copy.startedAt = startedAt;
+        copy.updatedAt = updatedAt;
+        copy.steps.putAll(steps);
+        copy.deadlines.putAll(deadlines);
+        copy.transactionId = transactionId;
+        copy.amount = amount;
+        copy.reservedItems = new ArrayList<>(reservedItems);
+        return copy;
+    }
+}
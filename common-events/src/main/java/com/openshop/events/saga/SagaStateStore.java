@@ -0,0 +1,465 @@
+package com.openshop.events.saga;
+
+import com.openshop.events.codec.EventCodecs;
+import com.openshop.events.codec.EventReader;
+import com.openshop.events.codec.EventWriter;
+import com.openshop.events.inventory.InventoryReserveResponseEvent;
+import com.openshop.events.inventory.InventoryRestoreRequestEvent;
+import com.openshop.events.order.OrderInventoryReserveRequestEvent;
+import com.openshop.events.order.OrderPaymentRequestEvent;
+import com.openshop.events.order.OrderShippingRequestEvent;
+import com.openshop.events.payment.PaymentRefundRequestEvent;
+import com.openshop.events.payment.PaymentResponseEvent;
+import com.openshop.events.shipping.ShippingResponseEvent;
+import com.openshop.events.timer.TimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory store of in-flight order sagas keyed by {@code correlationId}.
+ * <p>
+ * Every transition appends the saga's full state to a memory-mapped {@link SagaLog}, so the store is
+ * rebuilt after a crash by replaying the log. When a segment fills up it is compacted into a new
+ * segment holding only live sagas. Pending steps are tracked on a {@link TimingWheel}; when one times
+ * out the store marks it {@link StepStatus#TIMED_OUT} and hands the compensation events for the
+ * already succeeded steps to the {@link SagaTimeoutHandler}. A step's timeout is cancelled as soon as
+ * the step finishes.
+ * <p>
+ * A saga is evicted once it succeeded (shipping done, nothing pending), or when it has had no pending
+ * step and no transition for {@link SagaStoreSettings#getIdleRetention()}, which covers failed and
+ * compensated sagas. {@link #complete} evicts a saga explicitly.
+ */
+public class SagaStateStore implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SagaStateStore.class);
+
+    private static final String SUCCESS = "SUCCESS";
+
+    private final Map<String, SagaState> states = new ConcurrentHashMap<>();
+    private final SagaStoreSettings settings;
+    private final SagaTimeoutHandler timeoutHandler;
+    private final SagaLog sagaLog;
+    private final TimingWheel timer;
+    private final LongAdder transitions = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile boolean closed;
+    // Guarded by this; one live timeout per pending step.
+    private final Map<String, Map<SagaStep, TimingWheel.Timeout>> stepTimeouts = new HashMap<>();
+
+    private SagaStateStore(Path directory, SagaStoreSettings settings, SagaTimeoutHandler timeoutHandler) {
+        this.settings = settings;
+        this.timeoutHandler = timeoutHandler;
+        this.sagaLog = new SagaLog(directory, settings.getSegmentSize(), settings.isForceOnWrite());
+        this.timer = new TimingWheel("saga-timeouts", settings.getTimerTick(), settings.getTimerWheelSize());
+    }
+
+    public static SagaStateStore open(Path directory, SagaStoreSettings settings, SagaTimeoutHandler timeoutHandler)
+            throws IOException {
+        SagaStateStore store = new SagaStateStore(directory, settings, timeoutHandler);
+        store.recover();
+        store.scheduleSweep();
+        return store;
+    }
+
+    public synchronized Optional<SagaState> get(String correlationId) {
+        SagaState state = states.get(correlationId);
+        return state == null ? Optional.empty() : Optional.of(state.copy());
+    }
+
+    public int size() {
+        return states.size();
+    }
+
+    public long transitions() {
+        return transitions.sum();
+    }
+
+    public long timeouts() {
+        return timeouts.sum();
+    }
+
+    /** Sagas removed because they finished or sat idle, not counting explicit {@link #complete} calls. */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public synchronized SagaState begin(String correlationId, UUID orderId, Long userId) {
+        SagaState state = getOrBegin(correlationId, orderId, userId);
+        return state.copy();
+    }
+
+    public synchronized void stepStarted(String correlationId, SagaStep step) {
+        SagaState state = require(correlationId);
+        startStep(state, step);
+        persist(state);
+    }
+
+    public synchronized void stepSucceeded(String correlationId, SagaStep step) {
+        finishStep(require(correlationId), step, StepStatus.SUCCEEDED);
+    }
+
+    public synchronized void stepFailed(String correlationId, SagaStep step) {
+        finishStep(require(correlationId), step, StepStatus.FAILED);
+    }
+
+    /**
+     * Applies the transition implied by a saga event. Events without a {@code correlationId} and
+     * unrelated event types are ignored.
+     */
+    public synchronized void apply(Object event) {
+        if (event instanceof OrderInventoryReserveRequestEvent e && e.getCorrelationId() != null) {
+            SagaState state = getOrBegin(e.getCorrelationId(), e.getOrderId(), e.getUserId());
+            state.getReservedItems().clear();
+            if (e.getItems() != null) {
+                e.getItems().forEach(item -> state.getReservedItems().add(
+                        new InventoryRestoreRequestEvent.RestoreItem(item.getProductId(), item.getQuantity())));
+            }
+            startStep(state, SagaStep.INVENTORY_RESERVE);
+            persist(state);
+        } else if (event instanceof InventoryReserveResponseEvent e && e.getCorrelationId() != null) {
+            SagaState state = getOrBegin(e.getCorrelationId(), e.getOrderId(), e.getUserId());
+            if (e.getReservedItems() != null && !e.getReservedItems().isEmpty()) {
+                state.getReservedItems().clear();
+                e.getReservedItems().stream()
+                        .filter(InventoryReserveResponseEvent.ReservedItem::isReserved)
+                        .forEach(item -> state.getReservedItems().add(
+                                new InventoryRestoreRequestEvent.RestoreItem(item.getProductId(), item.getQuantity())));
+            }
+            finishStep(state, SagaStep.INVENTORY_RESERVE, statusOf(e.getStatus()));
+        } else if (event instanceof OrderPaymentRequestEvent e && e.getCorrelationId() != null) {
+            SagaState state = getOrBegin(e.getCorrelationId(), e.getOrderId(), e.getUserId());
+            state.setAmount(e.getAmount());
+            startStep(state, SagaStep.PAYMENT);
+            persist(state);
+        } else if (event instanceof PaymentResponseEvent e && e.getCorrelationId() != null) {
+            SagaState state = getOrBegin(e.getCorrelationId(), e.getOrderId(), e.getUserId());
+            state.setTransactionId(e.getTransactionId());
+            if (e.getAmount() != null) {
+                state.setAmount(e.getAmount());
+            }
+            finishStep(state, SagaStep.PAYMENT, statusOf(e.getStatus()));
+        } else if (event instanceof OrderShippingRequestEvent e && e.getCorrelationId() != null) {
+            SagaState state = getOrBegin(e.getCorrelationId(), e.getOrderId(), e.getUserId());
+            startStep(state, SagaStep.SHIPPING);
+            persist(state);
+        } else if (event instanceof ShippingResponseEvent e && e.getCorrelationId() != null) {
+            SagaState state = getOrBegin(e.getCorrelationId(), e.getOrderId(), e.getUserId());
+            finishStep(state, SagaStep.SHIPPING, statusOf(e.getStatus()));
+        } else if (event instanceof PaymentRefundRequestEvent e && e.getCorrelationId() != null) {
+            SagaState state = getOrBegin(e.getCorrelationId(), e.getOrderId(), e.getUserId());
+            startStep(state, SagaStep.PAYMENT_REFUND);
+            persist(state);
+        } else if (event instanceof InventoryRestoreRequestEvent e && e.getCorrelationId() != null) {
+            SagaState state = getOrBegin(e.getCorrelationId(), e.getOrderId(), e.getUserId());
+            startStep(state, SagaStep.INVENTORY_RESTORE);
+            persist(state);
+        }
+    }
+
+    /**
+     * Removes a finished saga from the store.
+     */
+    public synchronized void complete(String correlationId) {
+        remove(correlationId);
+    }
+
+    /**
+     * Evicts sagas that have had no pending step and no transition for the idle retention.
+     *
+     * @return the number of sagas evicted
+     */
+    public synchronized int evictIdle() {
+        long cutoff = System.currentTimeMillis() - settings.getIdleRetention().toMillis();
+        List<String> idle = new ArrayList<>();
+        for (SagaState state : states.values()) {
+            if (!state.hasPendingSteps() && state.getUpdatedAt() < cutoff) {
+                idle.add(state.getCorrelationId());
+            }
+        }
+        idle.forEach(this::remove);
+        evictions.add(idle.size());
+        return idle.size();
+    }
+
+    private void remove(String correlationId) {
+        Map<SagaStep, TimingWheel.Timeout> timeouts = stepTimeouts.remove(correlationId);
+        if (timeouts != null) {
+            timeouts.values().forEach(TimingWheel.Timeout::cancel);
+        }
+        if (states.remove(correlationId) == null) {
+            return;
+        }
+        EventWriter out = new EventWriter(64);
+        out.writeString(correlationId);
+        append(SagaLog.REMOVE, out.toByteArray());
+        transitions.increment();
+    }
+
+    /**
+     * Rewrites the log so it only holds the current state of live sagas.
+     */
+    public synchronized void compact() {
+        List<byte[]> live = new ArrayList<>(states.size());
+        for (SagaState state : states.values()) {
+            live.add(encode(state));
+        }
+        try {
+            sagaLog.rewrite(live);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact saga log", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        timer.close();
+        sagaLog.close();
+    }
+
+    private void recover() throws IOException {
+        sagaLog.replay((type, payload) -> {
+            EventReader in = new EventReader(payload);
+            if (type == SagaLog.STATE) {
+                SagaState state = decode(in);
+                states.put(state.getCorrelationId(), state);
+            } else if (type == SagaLog.REMOVE) {
+                states.remove(in.readString());
+            }
+        });
+        compact();
+        long now = System.currentTimeMillis();
+        for (SagaState state : states.values()) {
+            state.getDeadlines().forEach((step, deadline) -> {
+                if (state.status(step) == StepStatus.PENDING) {
+                    scheduleTimeout(state.getCorrelationId(), step, deadline, Math.max(0, deadline - now));
+                }
+            });
+        }
+        log.info("Recovered {} in-flight sagas", states.size());
+    }
+
+    private SagaState require(String correlationId) {
+        SagaState state = states.get(correlationId);
+        if (state == null) {
+            throw new IllegalStateException("No saga with correlationId " + correlationId);
+        }
+        return state;
+    }
+
+    private SagaState getOrBegin(String correlationId, UUID orderId, Long userId) {
+        SagaState state = states.get(correlationId);
+        if (state == null) {
+            long now = System.currentTimeMillis();
+            state = new SagaState();
+            state.setCorrelationId(correlationId);
+            state.setStartedAt(now);
+            state.setUpdatedAt(now);
+            states.put(correlationId, state);
+        }
+        if (state.getOrderId() == null) {
+            state.setOrderId(orderId);
+        }
+        if (state.getUserId() == null) {
+            state.setUserId(userId);
+        }
+        return state;
+    }
+
+    private void startStep(SagaState state, SagaStep step) {
+        Duration timeout = settings.timeoutFor(step);
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+        state.getSteps().put(step, StepStatus.PENDING);
+        state.getDeadlines().put(step, deadline);
+        scheduleTimeout(state.getCorrelationId(), step, deadline, timeout.toMillis());
+    }
+
+    private void finishStep(SagaState state, SagaStep step, StepStatus status) {
+        state.getSteps().put(step, status);
+        state.getDeadlines().remove(step);
+        cancelTimeout(state.getCorrelationId(), step);
+        if (state.status(SagaStep.SHIPPING) == StepStatus.SUCCEEDED && !state.hasPendingSteps()) {
+            remove(state.getCorrelationId());
+            evictions.increment();
+            return;
+        }
+        persist(state);
+    }
+
+    private void persist(SagaState state) {
+        state.setUpdatedAt(System.currentTimeMillis());
+        append(SagaLog.STATE, encode(state));
+        transitions.increment();
+    }
+
+    // The in-memory map already holds the change, so a compaction on a full segment records it too.
+    private void append(byte type, byte[] payload) {
+        if (!sagaLog.append(type, payload)) {
+            compact();
+        }
+    }
+
+    private void scheduleTimeout(String correlationId, SagaStep step, long deadline, long delayMillis) {
+        TimingWheel.Timeout timeout = timer.schedule(() -> onTimeout(correlationId, step, deadline),
+                Duration.ofMillis(delayMillis));
+        TimingWheel.Timeout previous = stepTimeouts
+                .computeIfAbsent(correlationId, id -> new EnumMap<>(SagaStep.class))
+                .put(step, timeout);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void cancelTimeout(String correlationId, SagaStep step) {
+        Map<SagaStep, TimingWheel.Timeout> timeouts = stepTimeouts.get(correlationId);
+        if (timeouts == null) {
+            return;
+        }
+        TimingWheel.Timeout timeout = timeouts.remove(step);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        if (timeouts.isEmpty()) {
+            stepTimeouts.remove(correlationId);
+        }
+    }
+
+    // Runs on the wheel thread and reschedules itself; the sweep is a single pass over the map.
+    private void scheduleSweep() {
+        timer.schedule(() -> {
+            try {
+                int evicted = evictIdle();
+                if (evicted > 0) {
+                    log.debug("Evicted {} idle sagas", evicted);
+                }
+            } finally {
+                if (!closed) {
+                    scheduleSweep();
+                }
+            }
+        }, settings.getSweepInterval());
+    }
+
+    private void onTimeout(String correlationId, SagaStep step, long deadline) {
+        SagaState snapshot;
+        List<Object> compensations = new ArrayList<>();
+        synchronized (this) {
+            SagaState state = states.get(correlationId);
+            if (state == null || state.status(step) != StepStatus.PENDING
+                    || !Long.valueOf(deadline).equals(state.getDeadlines().get(step))) {
+                return;
+            }
+            state.getSteps().put(step, StepStatus.TIMED_OUT);
+            state.getDeadlines().remove(step);
+            cancelTimeout(correlationId, step);
+            long now = System.currentTimeMillis();
+            String reason = reasonFor(step);
+            if (state.status(SagaStep.PAYMENT) == StepStatus.SUCCEEDED && state.status(SagaStep.PAYMENT_REFUND) == null) {
+                compensations.add(PaymentRefundRequestEvent.builder()
+                        .orderId(state.getOrderId())
+                        .userId(state.getUserId())
+                        .transactionId(state.getTransactionId())
+                        .amount(state.getAmount())
+                        .reason(reason)
+                        .correlationId(correlationId)
+                        .timestamp(now)
+                        .build());
+                startStep(state, SagaStep.PAYMENT_REFUND);
+            }
+            if (state.status(SagaStep.INVENTORY_RESERVE) == StepStatus.SUCCEEDED
+                    && state.status(SagaStep.INVENTORY_RESTORE) == null) {
+                compensations.add(InventoryRestoreRequestEvent.builder()
+                        .orderId(state.getOrderId())
+                        .userId(state.getUserId())
+                        .items(new ArrayList<>(state.getReservedItems()))
+                        .reason(reason)
+                        .correlationId(correlationId)
+                        .timestamp(now)
+                        .build());
+                startStep(state, SagaStep.INVENTORY_RESTORE);
+            }
+            persist(state);
+            timeouts.increment();
+            snapshot = state.copy();
+        }
+        log.warn("Saga {} timed out in step {}, issuing {} compensation event(s)", correlationId, step, compensations.size());
+        timeoutHandler.onTimeout(snapshot, step, compensations);
+    }
+
+    private static String reasonFor(SagaStep step) {
+        return switch (step) {
+            case INVENTORY_RESERVE -> "INVENTORY_FAILED";
+            case PAYMENT -> "PAYMENT_FAILED";
+            case SHIPPING -> "SHIPPING_FAILED";
+            case PAYMENT_REFUND, INVENTORY_RESTORE -> "ORDER_CANCELLED";
+        };
+    }
+
+    private static StepStatus statusOf(String status) {
+        return SUCCESS.equals(status) ? StepStatus.SUCCEEDED : StepStatus.FAILED;
+    }
+
+    private static byte[] encode(SagaState state) {
+        EventWriter out = new EventWriter();
+        out.writeString(state.getCorrelationId());
+        out.writeUuid(state.getOrderId());
+        out.writeNullableLong(state.getUserId());
+        out.writeVarLong(state.getStartedAt());
+        out.writeVarLong(state.getUpdatedAt());
+        out.writeString(state.getTransactionId());
+        // Raw bits rather than cents: amounts from JSON events are not guaranteed to be whole cents.
+        out.writeNullableLong(state.getAmount() == null ? null : Double.doubleToLongBits(state.getAmount()));
+        EventCodecs.writeList(out, state.getReservedItems(), (item, o) -> {
+            o.writeUuid(item.getProductId());
+            o.writeNullableInt(item.getQuantity());
+        });
+        out.writeVarInt(state.getSteps().size());
+        state.getSteps().forEach((step, status) -> {
+            out.writeByte(step.ordinal());
+            out.writeByte(status.ordinal());
+            out.writeNullableLong(state.getDeadlines().get(step));
+        });
+        return out.toByteArray();
+    }
+
+    private static SagaState decode(EventReader in) {
+        SagaState state = new SagaState();
+        state.setCorrelationId(in.readString());
+        state.setOrderId(in.readUuid());
+        state.setUserId(in.readNullableLong());
+        state.setStartedAt(in.readVarLong());
+        state.setUpdatedAt(in.readVarLong());
+        state.setTransactionId(in.readString());
+        Long amountBits = in.readNullableLong();
+        state.setAmount(amountBits == null ? null : Double.longBitsToDouble(amountBits));
+        List<InventoryRestoreRequestEvent.RestoreItem> items = EventCodecs.readList(in, i ->
+                new InventoryRestoreRequestEvent.RestoreItem(i.readUuid(), i.readNullableInt()));
+        state.setReservedItems(items != null ? items : new ArrayList<>());
+        int stepCount = in.readVarInt();
+        for (int i = 0; i < stepCount; i++) {
+            SagaStep step = SagaStep.values()[in.readByte()];
+            StepStatus status = StepStatus.values()[in.readByte()];
+            Long deadline = in.readNullableLong();
+            state.getSteps().put(step, status);
+            if (deadline != null) {
+                state.getDeadlines().put(step, deadline);
+            }
+        }
+        return state;
+    }
+}
@@ -0,0 +1,12 @@
+package com.openshop.events.saga;
+
+/**
+ * Steps of the order saga. Ordinals are persisted by {@link SagaStateStore}; only append new steps.
+ */
+public enum SagaStep {
+    INVENTORY_RESERVE,
+    PAYMENT,
+    SHIPPING,
+    PAYMENT_REFUND,
+    INVENTORY_RESTORE
+}
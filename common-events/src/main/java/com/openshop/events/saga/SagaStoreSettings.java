@@ -0,0 +1,47 @@
+package com.openshop.events.saga;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SagaStoreSettings {
+    /** Size of each memory-mapped log segment. A full segment triggers compaction. */
+    @Builder.Default
+    private int segmentSize = 64 * 1024 * 1024;
+    /** Force every append to disk. Without it the log survives process crashes but not power loss. */
+    @Builder.Default
+    private boolean forceOnWrite = false;
+    @Builder.Default
+    private Duration inventoryReserveTimeout = Duration.ofSeconds(30);
+    @Builder.Default
+    private Duration paymentTimeout = Duration.ofMinutes(2);
+    @Builder.Default
+    private Duration shippingTimeout = Duration.ofMinutes(2);
+    @Builder.Default
+    private Duration compensationTimeout = Duration.ofMinutes(5);
+    @Builder.Default
+    private Duration timerTick = Duration.ofMillis(100);
+    @Builder.Default
+    private int timerWheelSize = 512;
+    /** How long a saga with no pending step is kept after its last transition, e.g. a failed or compensated one. */
+    @Builder.Default
+    private Duration idleRetention = Duration.ofMinutes(15);
+    @Builder.Default
+    private Duration sweepInterval = Duration.ofMinutes(1);
+
+    public Duration timeoutFor(SagaStep step) {
+        return switch (step) {
+            case INVENTORY_RESERVE -> inventoryReserveTimeout;
+            case PAYMENT -> paymentTimeout;
+            case SHIPPING -> shippingTimeout;
+            case PAYMENT_REFUND, INVENTORY_RESTORE -> compensationTimeout;
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.openshop.events.saga;
+
+import java.util.List;
+
+/**
+ * Receives the compensation events for a saga whose step timed out, e.g. to publish them.
+ * Called on the store's timer thread; implementations should not block.
+ */
+@FunctionalInterface
+public interface SagaTimeoutHandler {
+
+    /**
+     * @param compensations {@code PaymentRefundRequestEvent} and/or {@code InventoryRestoreRequestEvent}
+     *                      for the steps that had already succeeded; may be empty
+     */
+    void onTimeout(SagaState state, SagaStep timedOutStep, List<Object> compensations);
+}
@@ -0,0 +1,11 @@
+package com.openshop.events.saga;
+
+/**
+ * Progress of a single {@link SagaStep}. Ordinals are persisted by {@link SagaStateStore}; only append.
+ */
+public enum StepStatus {
+    PENDING,
+    SUCCEEDED,
+    FAILED,
+    TIMED_OUT
+}
@@ -1,5 +1,6 @@
 package com.openshop.events.shipping;
 
+import com.openshop.events.SagaEvent;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,7 +12,7 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class ShippingResponseEvent {
+public class ShippingResponseEvent implements SagaEvent {
     private UUID orderId;
     private Long userId;
     private UUID shipmentId;
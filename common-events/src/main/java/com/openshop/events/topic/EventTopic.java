@@ -0,0 +1,44 @@
+package com.openshop.events.topic;
+
+import lombok.Getter;
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * A Kafka topic bound to the event class it carries and the way its record key is derived.
+ *
+ * @param <T> the event type published on the topic
+ */
+@Getter
+public final class EventTopic<T> {
+
+    private final String name;
+    private final Class<T> eventType;
+    private final Function<T, UUID> keyExtractor;
+
+    EventTopic(String name, Class<T> eventType, Function<T, UUID> keyExtractor) {
+        this.name = name;
+        this.eventType = eventType;
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * The record key for an event: its {@code orderId} on saga topics, so every step of one saga shares a
+     * partition, or its {@code productId} on batched reservation topics.
+     */
+    public String key(T event) {
+        UUID key = keyExtractor.apply(event);
+        return key == null ? null : key.toString();
+    }
+
+    public ProducerRecord<String, T> record(T event) {
+        return new ProducerRecord<>(name, key(event), event);
+    }
+
+    @SuppressWarnings("unchecked")
+    public String keyOf(Object event) {
+        return eventType.isInstance(event) ? key((T) event) : null;
+    }
+}
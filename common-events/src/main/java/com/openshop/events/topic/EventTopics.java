@@ -0,0 +1,90 @@
+package com.openshop.events.topic;
+
+import com.openshop.events.constants.KafkaTopics;
+import com.openshop.events.inventory.InventoryReserveBatchResponseEvent;
+import com.openshop.events.inventory.InventoryReserveResponseEvent;
+import com.openshop.events.inventory.InventoryRestoreRequestEvent;
+import com.openshop.events.order.OrderInventoryReserveBatchRequestEvent;
+import com.openshop.events.order.OrderInventoryReserveRequestEvent;
+import com.openshop.events.order.OrderNotificationRequestEvent;
+import com.openshop.events.order.OrderPaymentRequestEvent;
+import com.openshop.events.order.OrderShippingRequestEvent;
+import com.openshop.events.payment.PaymentRefundRequestEvent;
+import com.openshop.events.payment.PaymentResponseEvent;
+import com.openshop.events.shipping.ShippingResponseEvent;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Typed view of {@link KafkaTopics}: each saga topic with its event class and record key, the
+ * {@code orderId} for per-order events and the {@code productId} for batched reservations.
+ * <p>
+ * {@link KafkaTopics#PAYMENT_GATEWAY_WEBHOOK} carries gateway payloads rather than a saga event and
+ * is not registered here.
+ */
+public final class EventTopics {
+
+    private static final Map<String, EventTopic<?>> BY_NAME = new LinkedHashMap<>();
+    private static final Map<Class<?>, EventTopic<?>> BY_EVENT_TYPE = new LinkedHashMap<>();
+
+    // Order to Payment
+    public static final EventTopic<OrderPaymentRequestEvent> ORDER_PAYMENT_REQUEST =
+            register(KafkaTopics.ORDER_PAYMENT_REQUEST, OrderPaymentRequestEvent.class, OrderPaymentRequestEvent::getOrderId);
+    public static final EventTopic<PaymentResponseEvent> PAYMENT_ORDER_RESPONSE =
+            register(KafkaTopics.PAYMENT_ORDER_RESPONSE, PaymentResponseEvent.class, PaymentResponseEvent::getOrderId);
+    public static final EventTopic<PaymentRefundRequestEvent> PAYMENT_REFUND_REQUEST =
+            register(KafkaTopics.PAYMENT_REFUND_REQUEST, PaymentRefundRequestEvent.class, PaymentRefundRequestEvent::getOrderId);
+
+    // Order to Inventory
+    public static final EventTopic<OrderInventoryReserveRequestEvent> ORDER_INVENTORY_RESERVE_REQUEST =
+            register(KafkaTopics.ORDER_INVENTORY_RESERVE_REQUEST, OrderInventoryReserveRequestEvent.class, OrderInventoryReserveRequestEvent::getOrderId);
+    public static final EventTopic<InventoryReserveResponseEvent> INVENTORY_ORDER_RESERVE_RESPONSE =
+            register(KafkaTopics.INVENTORY_ORDER_RESERVE_RESPONSE, InventoryReserveResponseEvent.class, InventoryReserveResponseEvent::getOrderId);
+    public static final EventTopic<InventoryRestoreRequestEvent> ORDER_INVENTORY_RESTORE_REQUEST =
+            register(KafkaTopics.ORDER_INVENTORY_RESTORE_REQUEST, InventoryRestoreRequestEvent.class, InventoryRestoreRequestEvent::getOrderId);
+    // Batched reservations span several orders and are keyed by productId, so one consumer owns each hot stock row.
+    public static final EventTopic<OrderInventoryReserveBatchRequestEvent> ORDER_INVENTORY_RESERVE_BATCH_REQUEST =
+            register(KafkaTopics.ORDER_INVENTORY_RESERVE_BATCH_REQUEST, OrderInventoryReserveBatchRequestEvent.class, OrderInventoryReserveBatchRequestEvent::getProductId);
+    public static final EventTopic<InventoryReserveBatchResponseEvent> INVENTORY_ORDER_RESERVE_BATCH_RESPONSE =
+            register(KafkaTopics.INVENTORY_ORDER_RESERVE_BATCH_RESPONSE, InventoryReserveBatchResponseEvent.class, InventoryReserveBatchResponseEvent::getProductId);
+
+    // Order to Shipping
+    public static final EventTopic<OrderShippingRequestEvent> ORDER_SHIPPING_REQUEST =
+            register(KafkaTopics.ORDER_SHIPPING_REQUEST, OrderShippingRequestEvent.class, OrderShippingRequestEvent::getOrderId);
+    public static final EventTopic<ShippingResponseEvent> SHIPPING_ORDER_RESPONSE =
+            register(KafkaTopics.SHIPPING_ORDER_RESPONSE, ShippingResponseEvent.class, ShippingResponseEvent::getOrderId);
+
+    // Order to Notification
+    public static final EventTopic<OrderNotificationRequestEvent> ORDER_NOTIFICATION_REQUEST =
+            register(KafkaTopics.ORDER_NOTIFICATION_REQUEST, OrderNotificationRequestEvent.class, OrderNotificationRequestEvent::getOrderId);
+
+    private EventTopics() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static Optional<EventTopic<?>> forName(String topic) {
+        return Optional.ofNullable(BY_NAME.get(topic));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Optional<EventTopic<T>> forEventType(Class<T> eventType) {
+        return Optional.ofNullable((EventTopic<T>) BY_EVENT_TYPE.get(eventType));
+    }
+
+    public static Collection<EventTopic<?>> all() {
+        return Collections.unmodifiableCollection(BY_NAME.values());
+    }
+
+    private static <T> EventTopic<T> register(String name, Class<T> eventType, Function<T, UUID> keyExtractor) {
+        EventTopic<T> topic = new EventTopic<>(name, eventType, keyExtractor);
+        BY_NAME.put(name, topic);
+        BY_EVENT_TYPE.put(eventType, topic);
+        return topic;
+    }
+}
@@ -0,0 +1,77 @@
+package com.openshop.events.topic;
+
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.utils.Utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Kafka {@link Partitioner} that places every record of an order (or, on batched reservation topics, of a
+ * product) on the same partition.
+ * <p>
+ * For topics in {@link EventTopics} the partition is derived from the event's registered key (the
+ * {@code orderId}, or the {@code productId} on batched reservation topics), so a producer that passes a
+ * different key (or none) still lands on the owning partition. UUID keys are hashed from their 128 bits,
+ * which spreads random ids evenly; other keys fall back to murmur2
+ * like Kafka's default partitioner.
+ * <p>
+ * Enable with {@code partitioner.class=com.openshop.events.topic.OrderKeyPartitioner}.
+ */
+public class OrderKeyPartitioner implements Partitioner {
+
+    @Override
+    public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes, Cluster cluster) {
+        int partitions = cluster.partitionCountForTopic(topic);
+        String recordKey = EventTopics.forName(topic)
+                .map(eventTopic -> eventTopic.keyOf(value))
+                .orElse(null);
+        if (recordKey == null && key != null) {
+            recordKey = key.toString();
+        }
+        if (recordKey == null) {
+            return Utils.toPositive(Utils.murmur2(valueBytes == null ? new byte[0] : valueBytes)) % partitions;
+        }
+        return partitionFor(recordKey, partitions);
+    }
+
+    /**
+     * Partition of a record key for a topic with {@code partitions} partitions. Consumers can use this
+     * to locate the partition that owns an order or product.
+     */
+    public static int partitionFor(String recordKey, int partitions) {
+        UUID id = parseUuid(recordKey);
+        if (id == null) {
+            return Utils.toPositive(Utils.murmur2(recordKey.getBytes(StandardCharsets.UTF_8))) % partitions;
+        }
+        return (int) Long.remainderUnsigned(mix(id.getMostSignificantBits() ^ id.getLeastSignificantBits()), partitions);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private static UUID parseUuid(String value) {
+        if (value.length() != 36) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Stafford variant 13 of the 64-bit MurmurHash3 finalizer.
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,83 @@
+package com.openshop.events.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openshop.events.order.OrderInventoryReserveRequestEvent;
+import com.openshop.events.order.OrderShippingRequestEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary codec against Jackson, in ns per event; the encoded sizes are printed at setup.
+ * <p>
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=CodecBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    @Param({"reserve", "shipping"})
+    public String event;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Object value;
+    private Class<?> type;
+    private byte[] binary;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        value = switch (event) {
+            case "reserve" -> new OrderInventoryReserveRequestEvent(orderId, 42L, List.of(
+                    new OrderInventoryReserveRequestEvent.InventoryItem(UUID.randomUUID(), 1),
+                    new OrderInventoryReserveRequestEvent.InventoryItem(UUID.randomUUID(), 2),
+                    new OrderInventoryReserveRequestEvent.InventoryItem(UUID.randomUUID(), 5)),
+                    UUID.randomUUID().toString(), System.currentTimeMillis());
+            case "shipping" -> new OrderShippingRequestEvent(orderId, 42L, "221B Baker Street", "London", "Greater London",
+                    "NW1 6XE", "UK", "+44 20 7224 3688", 249.99, UUID.randomUUID().toString(), System.currentTimeMillis());
+            default -> throw new IllegalArgumentException(event);
+        };
+        type = value.getClass();
+        binary = EventCodecs.encode(value);
+        json = objectMapper.writeValueAsBytes(value);
+        System.out.printf("%n%s: binary %d bytes, json %d bytes%n", event, binary.length, json.length);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return EventCodecs.encode(value);
+    }
+
+    @Benchmark
+    public Object binaryDecode() {
+        return EventCodecs.decode(binary);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() throws Exception {
+        return objectMapper.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public Object jsonDecode() throws Exception {
+        return objectMapper.readValue(json, type);
+    }
+}
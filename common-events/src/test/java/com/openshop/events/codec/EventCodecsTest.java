@@ -0,0 +1,179 @@
+package com.openshop.events.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openshop.events.inventory.InventoryReserveBatchResponseEvent;
+import com.openshop.events.inventory.InventoryReserveResponseEvent;
+import com.openshop.events.inventory.InventoryRestoreRequestEvent;
+import com.openshop.events.order.OrderInventoryReserveBatchRequestEvent;
+import com.openshop.events.order.OrderInventoryReserveRequestEvent;
+import com.openshop.events.order.OrderNotificationBatchEvent;
+import com.openshop.events.order.OrderNotificationRequestEvent;
+import com.openshop.events.order.OrderPaymentRequestEvent;
+import com.openshop.events.order.OrderShippingRequestEvent;
+import com.openshop.events.payment.PaymentRefundRequestEvent;
+import com.openshop.events.payment.PaymentResponseEvent;
+import com.openshop.events.shipping.ShippingCancelRequestEvent;
+import com.openshop.events.shipping.ShippingResponseEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventCodecsTest {
+
+    private static final UUID ORDER_ID = UUID.fromString("6f1c2a7e-3b5d-4c8e-9a0f-1d2e3f4a5b6c");
+    private static final UUID PRODUCT_ID = UUID.fromString("0a1b2c3d-4e5f-6789-abcd-ef0123456789");
+
+    static Stream<Object> events() {
+        List<OrderInventoryReserveRequestEvent.InventoryItem> reserveItems = new ArrayList<>();
+        reserveItems.add(new OrderInventoryReserveRequestEvent.InventoryItem(PRODUCT_ID, 3));
+        reserveItems.add(new OrderInventoryReserveRequestEvent.InventoryItem(null, null));
+        return Stream.of(
+                new OrderPaymentRequestEvent(ORDER_ID, 42L, 199.99, "corr-1", 1_700_000_000_000L),
+                new PaymentResponseEvent(ORDER_ID, 42L, "txn-1", "SUCCESS", 199.99, "CARD", null, "corr-1", 1L),
+                // A status outside the code table is written as a literal.
+                new PaymentResponseEvent(ORDER_ID, 42L, "txn-1", "PENDING_REVIEW", -0.01, null, "declined", "c", -5L),
+                new PaymentRefundRequestEvent(ORDER_ID, 42L, "txn-1", 10.5, "SHIPPING_FAILED", "corr-1", 2L),
+                new OrderInventoryReserveRequestEvent(ORDER_ID, 42L, reserveItems, "corr-1", 3L),
+                new OrderInventoryReserveRequestEvent(ORDER_ID, 42L, List.of(), "corr-1", 3L),
+                new InventoryReserveResponseEvent(ORDER_ID, 42L, "FAILED", "Insufficient stock",
+                        List.of(new InventoryReserveResponseEvent.ReservedItem(PRODUCT_ID, 3, true),
+                                new InventoryReserveResponseEvent.ReservedItem(null, null, false)), "corr-1", 4L),
+                new InventoryRestoreRequestEvent(ORDER_ID, 42L,
+                        List.of(new InventoryRestoreRequestEvent.RestoreItem(PRODUCT_ID, 3)), "PAYMENT_FAILED", "corr-1", 5L),
+                new OrderShippingRequestEvent(ORDER_ID, 42L, "1 Main St", "Zürich", "ZH", "8001", "CH", "+41 44",
+                        1_000_000.25, "corr-1", 6L),
+                new ShippingResponseEvent(ORDER_ID, 42L, UUID.randomUUID(), "SUCCESS", "TRK1", "DHL", "2024-12-24",
+                        null, "corr-1", 7L),
+                new ShippingCancelRequestEvent(ORDER_ID, 42L, UUID.randomUUID(), "ORDER_CANCELLED", "corr-1", 8L),
+                new OrderNotificationRequestEvent(ORDER_ID, 42L, "a@b.c", "ORDER_SHIPPED", "SHIPPED", 19.9,
+                        "Your order is on its way", "corr-1", 9L),
+                new OrderInventoryReserveBatchRequestEvent(UUID.randomUUID(), PRODUCT_ID, 5,
+                        List.of(new OrderInventoryReserveBatchRequestEvent.Reservation(ORDER_ID, 42L, 5, "corr-1"),
+                                new OrderInventoryReserveBatchRequestEvent.Reservation(null, null, null, null)), 10L),
+                new InventoryReserveBatchResponseEvent(UUID.randomUUID(), PRODUCT_ID, null,
+                        List.of(new InventoryReserveBatchResponseEvent.ReservationResult(ORDER_ID, 5, true, null),
+                                new InventoryReserveBatchResponseEvent.ReservationResult(null, null, false, "no stock")),
+                        11L),
+                new OrderNotificationBatchEvent(42L, "a@b.c",
+                        List.of(new OrderNotificationRequestEvent(ORDER_ID, 42L, "a@b.c", "ORDER_SHIPPED", "SHIPPED",
+                                        19.9, "Your order is on its way", "corr-1", 9L),
+                                new OrderNotificationRequestEvent()), 3, 12L),
+                // Every field null, including the item lists.
+                new OrderPaymentRequestEvent(),
+                new PaymentResponseEvent(),
+                new PaymentRefundRequestEvent(),
+                new OrderInventoryReserveRequestEvent(),
+                new InventoryReserveResponseEvent(),
+                new InventoryRestoreRequestEvent(),
+                new OrderShippingRequestEvent(),
+                new ShippingResponseEvent(),
+                new ShippingCancelRequestEvent(),
+                new OrderNotificationRequestEvent(),
+                new OrderInventoryReserveBatchRequestEvent(),
+                new InventoryReserveBatchResponseEvent(),
+                new OrderNotificationBatchEvent());
+    }
+
+    @ParameterizedTest
+    @MethodSource("events")
+    void binaryRoundTrip(Object event) {
+        byte[] frame = EventCodecs.encode(event);
+
+        assertTrue(EventCodecs.isBinaryFrame(frame));
+        assertEquals(event, EventCodecs.decode(frame));
+    }
+
+    @ParameterizedTest
+    @MethodSource("events")
+    void serializerRoundTripInBothFormats(Object event) {
+        for (EventFormat format : EventFormat.values()) {
+            EventSerializer<Object> serializer = new EventSerializer<>(format, new ObjectMapper());
+            RecordHeaders headers = new RecordHeaders();
+            byte[] payload = serializer.serialize("topic", headers, event);
+
+            Object decoded = new EventDeserializer<>().deserialize("topic", headers, payload);
+            assertEquals(event, decoded, format.name());
+        }
+    }
+
+    @Test
+    void trailingBytesFromNewerSchemaAreIgnored() {
+        OrderPaymentRequestEvent event = new OrderPaymentRequestEvent(ORDER_ID, 1L, 5.0, "c", 1L);
+        byte[] frame = EventCodecs.encode(event);
+        byte[] extended = new byte[frame.length + 3];
+        System.arraycopy(frame, 0, extended, 0, frame.length);
+
+        assertEquals(event, EventCodecs.decode(extended));
+    }
+
+    @Test
+    void subCentAmountsAreRejected() {
+        OrderPaymentRequestEvent event = new OrderPaymentRequestEvent(ORDER_ID, 1L, 10.005, "c", 1L);
+
+        assertThrows(SerializationException.class, () -> EventCodecs.encode(event));
+    }
+
+    @Test
+    void codeTableValuesNotYetWrittenAsCodesStayReadableForOlderReaders() {
+        CodeTable older = new CodeTable(2, "SUCCESS", "FAILED");
+        CodeTable newer = new CodeTable(2, "SUCCESS", "FAILED", "PENDING");
+        EventWriter out = new EventWriter();
+        newer.write(out, "PENDING");
+        newer.write(out, "FAILED");
+
+        EventReader in = new EventReader(out.toByteArray());
+        assertEquals("PENDING", older.read(in));
+        assertEquals("FAILED", older.read(in));
+    }
+
+    @Test
+    void unknownCodeTableCodesAreRejected() {
+        EventWriter out = new EventWriter();
+        new CodeTable(3, "SUCCESS", "FAILED", "PENDING").write(out, "PENDING");
+
+        assertThrows(SerializationException.class,
+                () -> new CodeTable(2, "SUCCESS", "FAILED").read(new EventReader(out.toByteArray())));
+    }
+
+    @Test
+    void floatingPointNoiseIsRoundedToTheCent() {
+        double[][] sums = {{0.1 + 0.2, 0.3}, {10.10 + 20.20, 30.3}, {3 * 19.99, 59.97}, {1.1 * 3, 3.3}};
+        for (double[] sum : sums) {
+            byte[] frame = EventCodecs.encode(new OrderPaymentRequestEvent(ORDER_ID, 1L, sum[0], "c", 1L));
+
+            assertEquals(sum[1], ((OrderPaymentRequestEvent) EventCodecs.decode(frame)).getAmount());
+        }
+    }
+
+    @Test
+    void wholeCentAmountsSurviveExactly() {
+        for (double amount : new double[]{0.01, 0.1, 0.29, 12.34, 19.99, 1234567.89, -3.07}) {
+            EventWriter out = new EventWriter();
+            out.writeMoney(amount);
+
+            assertEquals(amount, new EventReader(out.toByteArray()).readMoney());
+        }
+    }
+
+    @Test
+    void truncatedFrameFails() {
+        byte[] frame = EventCodecs.encode(new OrderPaymentRequestEvent(ORDER_ID, 1L, 5.0, "corr", 1L));
+        byte[] truncated = new byte[frame.length / 2];
+        System.arraycopy(frame, 0, truncated, 0, truncated.length);
+
+        assertThrows(SerializationException.class, () -> EventCodecs.decode(truncated));
+        assertArrayEquals(frame, EventCodecs.encode(EventCodecs.decode(frame)));
+    }
+}
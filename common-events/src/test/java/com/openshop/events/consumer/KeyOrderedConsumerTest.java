@@ -0,0 +1,95 @@
+package com.openshop.events.consumer;
+
+import com.openshop.events.constants.KafkaTopics;
+import com.openshop.events.order.OrderPaymentRequestEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyOrderedConsumerTest {
+
+    private static final String TOPIC = KafkaTopics.ORDER_PAYMENT_REQUEST;
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+
+    @Test
+    void misKeyedRecordQueuesBehindItsOrder() throws Exception {
+        MockConsumer<String, Object> mock = assignedConsumer();
+        UUID orderId = UUID.randomUUID();
+        List<String> trace = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+        ConsumerSettings settings = ConsumerSettings.builder().pollTimeout(Duration.ofMillis(10)).build();
+        try (KeyOrderedConsumer<Object> engine = new KeyOrderedConsumer<>(mock, record -> {
+            trace.add("start " + record.offset());
+            Thread.sleep(100);
+            trace.add("end " + record.offset());
+            done.countDown();
+        }, settings)) {
+            engine.start(List.of(TOPIC));
+            mock.schedulePollTask(() -> {
+                mock.addRecord(record(0, orderId.toString(), orderId));
+                mock.addRecord(record(1, "some-other-key", orderId));
+            });
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of("start 0", "end 0", "start 1", "end 1"), trace);
+    }
+
+    @Test
+    void failedRecordOfRevokedPartitionIsNotRetried() throws Exception {
+        MockConsumer<String, Object> mock = assignedConsumer();
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ConsumerSettings settings = ConsumerSettings.builder()
+                .pollTimeout(Duration.ofMillis(10))
+                .drainTimeout(Duration.ofMillis(100))
+                .retryBackoff(Duration.ofMillis(300))
+                .build();
+        try (KeyOrderedConsumer<Object> engine = new KeyOrderedConsumer<>(mock, record -> {
+            attempts.incrementAndGet();
+            running.countDown();
+            release.await();
+            throw new IllegalStateException("handler failed");
+        }, settings)) {
+            engine.start(List.of(TOPIC));
+            mock.schedulePollTask(() -> mock.addRecord(record(0, null, UUID.randomUUID())));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+
+            mock.schedulePollTask(() -> mock.rebalance(List.of()));
+            Thread.sleep(50);
+            release.countDown();
+            Thread.sleep(1_000);
+
+            assertEquals(1, attempts.get());
+            assertEquals(0, engine.metrics().getInFlight());
+            assertEquals(0, engine.metrics().getBlockedKeys());
+        }
+    }
+
+    private static MockConsumer<String, Object> assignedConsumer() {
+        MockConsumer<String, Object> mock = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        mock.updateBeginningOffsets(Map.of(PARTITION, 0L));
+        mock.schedulePollTask(() -> mock.rebalance(List.of(PARTITION)));
+        return mock;
+    }
+
+    private static ConsumerRecord<String, Object> record(long offset, String key, UUID orderId) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, key,
+                new OrderPaymentRequestEvent(orderId, 1L, 10.0, "corr-" + orderId, 1L));
+    }
+}
@@ -0,0 +1,76 @@
+package com.openshop.events.consumer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OffsetTrackerTest {
+
+    @Test
+    void commitStaysBelowTheLowestPendingOffset() {
+        OffsetTracker tracker = new OffsetTracker();
+        for (long offset = 10; offset < 15; offset++) {
+            tracker.track(offset);
+        }
+
+        tracker.complete(12);
+        tracker.complete(14);
+        assertEquals(10, tracker.nextCommit());
+
+        tracker.complete(10);
+        assertEquals(11, tracker.nextCommit());
+
+        tracker.complete(11);
+        assertEquals(13, tracker.nextCommit());
+
+        tracker.complete(13);
+        assertEquals(15, tracker.nextCommit());
+        assertEquals(0, tracker.pending());
+    }
+
+    @Test
+    void nothingNewToCommitReturnsMinusOne() {
+        OffsetTracker tracker = new OffsetTracker();
+        assertEquals(-1, tracker.nextCommit());
+
+        tracker.track(0);
+        tracker.complete(0);
+        assertEquals(1, tracker.nextCommit());
+        assertEquals(-1, tracker.nextCommit());
+    }
+
+    @Test
+    void discardedOffsetIsNeverCommittedPast() {
+        OffsetTracker tracker = new OffsetTracker();
+        for (long offset = 0; offset < 5; offset++) {
+            tracker.track(offset);
+        }
+
+        tracker.discard(2);
+        tracker.complete(0);
+        tracker.complete(1);
+        tracker.complete(3);
+        tracker.complete(4);
+
+        assertEquals(2, tracker.nextCommit());
+        assertEquals(0, tracker.pending());
+        tracker.track(5);
+        tracker.complete(5);
+        assertEquals(-1, tracker.nextCommit());
+    }
+
+    @Test
+    void lowestDiscardWins() {
+        OffsetTracker tracker = new OffsetTracker();
+        for (long offset = 0; offset < 4; offset++) {
+            tracker.track(offset);
+        }
+
+        tracker.discard(3);
+        tracker.discard(1);
+        tracker.complete(0);
+        tracker.complete(2);
+
+        assertEquals(1, tracker.nextCommit());
+    }
+}
@@ -0,0 +1,103 @@
+package com.openshop.events.dedup;
+
+import com.openshop.events.order.OrderNotificationRequestEvent;
+import com.openshop.events.payment.PaymentResponseEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DuplicateFilterTest {
+
+    private static final UUID ORDER_ID = UUID.fromString("6f1c2a7e-3b5d-4c8e-9a0f-1d2e3f4a5b6c");
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void redeliveryIsDropped() {
+        DuplicateFilter filter = new DuplicateFilter(DedupSettings.builder().build());
+        PaymentResponseEvent event = payment("SUCCESS");
+
+        assertTrue(filter.firstDelivery(event));
+        assertFalse(filter.firstDelivery(payment("SUCCESS")));
+        assertEquals(1, filter.metrics().getDuplicates());
+    }
+
+    @Test
+    void occurrencesTheDiscriminatorTellsApartAreNotDuplicates() {
+        DuplicateFilter filter = new DuplicateFilter(DedupSettings.builder().build());
+
+        assertTrue(filter.firstDelivery(notification("ORDER_CONFIRMED")));
+        assertTrue(filter.firstDelivery(notification("ORDER_SHIPPED")));
+        assertTrue(filter.firstDelivery(payment("FAILED")));
+        assertTrue(filter.firstDelivery(payment("SUCCESS")));
+    }
+
+    @Test
+    void restartedFilterKnowsKeysFromTheStore() {
+        InMemoryStore store = new InMemoryStore();
+        new DuplicateFilter(DedupSettings.builder().build(), store, CLOCK).firstDelivery(payment("SUCCESS"));
+
+        DuplicateFilter restarted = new DuplicateFilter(DedupSettings.builder().build(), store, CLOCK);
+
+        assertFalse(restarted.firstDelivery(payment("SUCCESS")));
+        assertEquals(1, restarted.metrics().getStoreLookups());
+    }
+
+    @Test
+    void warmLoadsKeysRecordedByThePreviousOwner() {
+        InMemoryStore store = new InMemoryStore();
+        DuplicateFilter newOwner = new DuplicateFilter(DedupSettings.builder().build(), store, CLOCK);
+        new DuplicateFilter(DedupSettings.builder().build(), store, CLOCK).firstDelivery(payment("SUCCESS"));
+
+        assertEquals(1, newOwner.warm());
+        assertFalse(newOwner.firstDelivery(payment("SUCCESS")));
+    }
+
+    @Test
+    void keysOutsideTheWindowAreNotLoaded() {
+        InMemoryStore store = new InMemoryStore();
+        store.keys.put("old", CLOCK.millis() - DedupSettings.builder().build().getBucketDuration().toMillis() * 7);
+
+        assertEquals(0, new DuplicateFilter(DedupSettings.builder().build(), store, CLOCK).warm());
+    }
+
+    private static PaymentResponseEvent payment(String status) {
+        return new PaymentResponseEvent(ORDER_ID, 1L, "txn", status, 10.0, "CARD", null, "corr-1", 1L);
+    }
+
+    private static OrderNotificationRequestEvent notification(String type) {
+        return new OrderNotificationRequestEvent(ORDER_ID, 1L, "a@b.c", type, "CONFIRMED", 10.0, null, "corr-1", 1L);
+    }
+
+    private static final class InMemoryStore implements DedupStore {
+        private final Map<String, Long> keys = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean contains(String key) {
+            return keys.containsKey(key);
+        }
+
+        @Override
+        public void put(String key) {
+            keys.put(key, CLOCK.millis());
+        }
+
+        @Override
+        public void forEachSince(long sinceEpochMillis, Consumer<String> action) {
+            keys.forEach((key, at) -> {
+                if (at >= sinceEpochMillis) {
+                    action.accept(key);
+                }
+            });
+        }
+    }
+}
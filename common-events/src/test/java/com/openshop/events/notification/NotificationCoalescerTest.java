@@ -0,0 +1,116 @@
+package com.openshop.events.notification;
+
+import com.openshop.events.order.OrderNotificationBatchEvent;
+import com.openshop.events.order.OrderNotificationRequestEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NotificationCoalescerTest {
+
+    private static final NotificationCoalescerSettings SETTINGS = NotificationCoalescerSettings.builder()
+            .window(Duration.ofMillis(100))
+            .timerTick(Duration.ofMillis(5))
+            .build();
+
+    private final BlockingQueue<OrderNotificationBatchEvent> sent = new LinkedBlockingQueue<>();
+
+    @Test
+    void notificationsOfOneUserWithinTheWindowShareABatch() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        try (NotificationCoalescer coalescer = new NotificationCoalescer(SETTINGS, sent::add)) {
+            coalescer.submit(notification(1L, first, "ORDER_CONFIRMED", 1L));
+            coalescer.submit(notification(1L, second, "ORDER_CONFIRMED", 2L));
+            coalescer.submit(notification(2L, UUID.randomUUID(), "ORDER_CONFIRMED", 3L));
+
+            assertNull(sent.poll(50, TimeUnit.MILLISECONDS));
+            OrderNotificationBatchEvent user1 = next();
+            OrderNotificationBatchEvent user2 = next();
+
+            assertEquals(1L, user1.getUserId());
+            assertEquals(List.of(first, second), user1.getNotifications().stream()
+                    .map(OrderNotificationRequestEvent::getOrderId).toList());
+            assertEquals(2, user1.getCoalescedCount());
+            assertEquals(2L, user2.getUserId());
+            assertEquals(1, user2.getNotifications().size());
+            assertEquals(3, coalescer.metrics().getReceived());
+            assertEquals(2, coalescer.metrics().getBatches());
+        }
+    }
+
+    @Test
+    void laterStatusSupersedesEarlierOneOfTheSameOrder() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        try (NotificationCoalescer coalescer = new NotificationCoalescer(SETTINGS, sent::add)) {
+            coalescer.submit(notification(1L, orderId, "ORDER_CONFIRMED", 1L));
+            coalescer.submit(notification(1L, orderId, "ORDER_CANCELLED", 3L));
+            // Arrives late but ranks below the cancellation, so it must not win.
+            coalescer.submit(notification(1L, orderId, "ORDER_SHIPPED", 5L));
+
+            OrderNotificationBatchEvent batch = next();
+
+            assertEquals(1, batch.getNotifications().size());
+            assertEquals("ORDER_CANCELLED", batch.getNotifications().get(0).getNotificationType());
+            assertEquals(3, batch.getCoalescedCount());
+            assertEquals(2, coalescer.metrics().getSuperseded());
+        }
+    }
+
+    @Test
+    void newWindowOpensAfterTheBatchWasSent() throws Exception {
+        try (NotificationCoalescer coalescer = new NotificationCoalescer(SETTINGS, sent::add)) {
+            coalescer.submit(notification(1L, UUID.randomUUID(), "ORDER_CONFIRMED", 1L));
+            assertEquals(1, next().getNotifications().size());
+
+            coalescer.submit(notification(1L, UUID.randomUUID(), "ORDER_SHIPPED", 2L));
+
+            assertEquals("ORDER_SHIPPED", next().getNotifications().get(0).getNotificationType());
+        }
+    }
+
+    @Test
+    void fullBatchIsSentBeforeTheWindowEnds() throws Exception {
+        NotificationCoalescerSettings settings = NotificationCoalescerSettings.builder()
+                .window(Duration.ofSeconds(30))
+                .maxOrdersPerUser(2)
+                .build();
+        try (NotificationCoalescer coalescer = new NotificationCoalescer(settings, sent::add)) {
+            coalescer.submit(notification(1L, UUID.randomUUID(), "ORDER_CONFIRMED", 1L));
+            coalescer.submit(notification(1L, UUID.randomUUID(), "ORDER_CONFIRMED", 2L));
+
+            assertEquals(2, next().getNotifications().size());
+            assertEquals(1, coalescer.metrics().getForcedFlushes());
+        }
+    }
+
+    @Test
+    void closeSendsPendingBatches() throws Exception {
+        NotificationCoalescer coalescer = new NotificationCoalescer(
+                NotificationCoalescerSettings.builder().window(Duration.ofSeconds(30)).build(), sent::add);
+        coalescer.submit(notification(1L, UUID.randomUUID(), "ORDER_CONFIRMED", 1L));
+
+        coalescer.close();
+
+        assertNotNull(sent.poll());
+    }
+
+    private OrderNotificationBatchEvent next() throws InterruptedException {
+        OrderNotificationBatchEvent batch = sent.poll(5, TimeUnit.SECONDS);
+        assertNotNull(batch, "no batch sent");
+        return batch;
+    }
+
+    private static OrderNotificationRequestEvent notification(Long userId, UUID orderId, String type, long timestamp) {
+        return new OrderNotificationRequestEvent(orderId, userId, "a@b.c", type, "CONFIRMED", 10.0, null, "corr", timestamp);
+    }
+}
@@ -0,0 +1,125 @@
+package com.openshop.events.publisher;
+
+import com.openshop.events.codec.EventSerializer;
+import com.openshop.events.order.OrderPaymentRequestEvent;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Events per second acknowledged by {@link BatchingEventPublisher} against plain producer sends, each
+ * invocation publishing {@value #EVENTS} events and waiting for every acknowledgement.
+ * <p>
+ * Without a broker the producer is a {@link MockProducer}, which only measures the publisher's own
+ * overhead: there all three variants land within 1.1M to 1.5M events/s, so no throughput gain of the
+ * batching publisher has been shown yet. The gain, if any, comes from fewer broker round trips and has
+ * to be measured against a real broker (e.g. the one from {@code start-local.sh}):
+ * {@code KAFKA_BOOTSTRAP_SERVERS=localhost:9092 mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark=PublisherBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PublisherBenchmark {
+
+    private static final int EVENTS = 1000;
+    private static final String TOPIC = "benchmark.publisher";
+
+    private Producer<String, OrderPaymentRequestEvent> producer;
+    private BatchingEventPublisher<OrderPaymentRequestEvent> publisher;
+    private List<OrderPaymentRequestEvent> events;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PublisherSettings settings = PublisherSettings.builder().build();
+        String bootstrapServers = System.getenv("KAFKA_BOOTSTRAP_SERVERS");
+        if (bootstrapServers == null || bootstrapServers.isBlank()) {
+            producer = new MockProducer<>(true, null, new StringSerializer(), new EventSerializer<>());
+        } else {
+            Map<String, Object> config = new HashMap<>(settings.producerOverrides());
+            config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+            producer = new KafkaProducer<>(config, new StringSerializer(), new EventSerializer<>());
+        }
+        publisher = new BatchingEventPublisher<>(producer, settings);
+        events = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            events.add(new OrderPaymentRequestEvent(UUID.randomUUID(), (long) i, 49.99, UUID.randomUUID().toString(),
+                    System.currentTimeMillis()));
+        }
+    }
+
+    // MockProducer keeps every sent record; drop them so the heap does not grow across iterations.
+    @Setup(Level.Iteration)
+    public void clearHistory() {
+        if (producer instanceof MockProducer<String, OrderPaymentRequestEvent> mock) {
+            mock.clear();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        publisher.close();
+        producer.close();
+    }
+
+    /** One blocking send per event, the simplest way services publish today. */
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void singleRecordSends() throws Exception {
+        for (OrderPaymentRequestEvent event : events) {
+            producer.send(new ProducerRecord<>(TOPIC, event.getOrderId().toString(), event)).get();
+        }
+    }
+
+    /** Fire-and-collect producer sends, relying on the producer's own batching only. */
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void asyncProducerSends() throws Exception {
+        List<Future<RecordMetadata>> acks = new ArrayList<>(EVENTS);
+        for (OrderPaymentRequestEvent event : events) {
+            acks.add(producer.send(new ProducerRecord<>(TOPIC, event.getOrderId().toString(), event)));
+        }
+        for (Future<RecordMetadata> ack : acks) {
+            ack.get();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void batchingPublisher() {
+        List<CompletableFuture<RecordMetadata>> acks = new ArrayList<>(EVENTS);
+        for (OrderPaymentRequestEvent event : events) {
+            acks.add(publisher.publish(TOPIC, event.getOrderId().toString(), event));
+        }
+        CompletableFuture.allOf(acks.toArray(new CompletableFuture[0])).join();
+    }
+}
@@ -0,0 +1,129 @@
+package com.openshop.events.reservation;
+
+import com.openshop.events.inventory.InventoryReserveBatchResponseEvent;
+import com.openshop.events.inventory.InventoryReserveResponseEvent;
+import com.openshop.events.order.OrderInventoryReserveBatchRequestEvent;
+import com.openshop.events.order.OrderInventoryReserveRequestEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReservationCoalescerTest {
+
+    private static final UUID PRODUCT_ID = UUID.fromString("0a1b2c3d-4e5f-6789-abcd-ef0123456789");
+
+    @Test
+    void reservationsOfOneProductShareABatch() throws Exception {
+        List<OrderInventoryReserveBatchRequestEvent> batches = new CopyOnWriteArrayList<>();
+        try (ReservationCoalescer coalescer = new ReservationCoalescer(request -> {
+            batches.add(request);
+            return reserveAll(request);
+        }, ReservationCoalescerSettings.builder().window(Duration.ofMillis(50)).build())) {
+            CompletableFuture<InventoryReserveResponseEvent> first = coalescer.submit(request(PRODUCT_ID, 2));
+            CompletableFuture<InventoryReserveResponseEvent> second = coalescer.submit(request(PRODUCT_ID, 3));
+
+            assertEquals("SUCCESS", first.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals("SUCCESS", second.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals(1, batches.size());
+            assertEquals(5, batches.get(0).getTotalQuantity());
+        }
+    }
+
+    @Test
+    void itemWithoutProductIdFailsTheOrder() throws Exception {
+        try (ReservationCoalescer coalescer = new ReservationCoalescer(ReservationCoalescerTest::reserveAll,
+                ReservationCoalescerSettings.builder().build())) {
+            List<OrderInventoryReserveRequestEvent.InventoryItem> items = new ArrayList<>();
+            items.add(new OrderInventoryReserveRequestEvent.InventoryItem(PRODUCT_ID, 1));
+            items.add(new OrderInventoryReserveRequestEvent.InventoryItem(null, 1));
+
+            InventoryReserveResponseEvent response = coalescer.submit(
+                    new OrderInventoryReserveRequestEvent(UUID.randomUUID(), 1L, items, "c", 1L)).get(5, TimeUnit.SECONDS);
+
+            assertEquals("FAILED", response.getStatus());
+            assertTrue(response.getReservedItems().stream().noneMatch(InventoryReserveResponseEvent.ReservedItem::isReserved));
+            assertEquals(0, coalescer.metrics().getPendingOrders());
+        }
+    }
+
+    @Test
+    void closeWaitsForSlowReserver() {
+        ExecutorService database = Executors.newSingleThreadExecutor();
+        ReservationCoalescer coalescer = new ReservationCoalescer(
+                request -> CompletableFuture.supplyAsync(() -> {
+                    sleep(200);
+                    return reserveAll(request).join();
+                }, database),
+                ReservationCoalescerSettings.builder().build());
+        CompletableFuture<InventoryReserveResponseEvent> future = coalescer.submit(request(PRODUCT_ID, 1));
+
+        coalescer.close();
+
+        assertTrue(future.isDone());
+        database.shutdown();
+    }
+
+    @Test
+    void submitsRacingCloseNeverStayPending() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            ReservationCoalescer coalescer = new ReservationCoalescer(ReservationCoalescerTest::reserveAll,
+                    ReservationCoalescerSettings.builder().build());
+            List<CompletableFuture<InventoryReserveResponseEvent>> futures = new CopyOnWriteArrayList<>();
+            ExecutorService submitters = Executors.newFixedThreadPool(8);
+            for (int thread = 0; thread < 8; thread++) {
+                submitters.execute(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        futures.add(coalescer.submit(request(PRODUCT_ID, 1)));
+                    }
+                });
+            }
+            Thread.sleep(1);
+            coalescer.close();
+            submitters.shutdown();
+            assertTrue(submitters.awaitTermination(10, TimeUnit.SECONDS));
+
+            for (CompletableFuture<InventoryReserveResponseEvent> future : futures) {
+                assertTrue(future.isDone(), "round " + round);
+            }
+            assertEquals(0, coalescer.metrics().getPendingOrders(), "round " + round);
+        }
+    }
+
+    private static OrderInventoryReserveRequestEvent request(UUID productId, int quantity) {
+        return new OrderInventoryReserveRequestEvent(UUID.randomUUID(), 1L,
+                List.of(new OrderInventoryReserveRequestEvent.InventoryItem(productId, quantity)), "c", 1L);
+    }
+
+    private static CompletableFuture<InventoryReserveBatchResponseEvent> reserveAll(
+            OrderInventoryReserveBatchRequestEvent request) {
+        List<InventoryReserveBatchResponseEvent.ReservationResult> results = new ArrayList<>();
+        for (OrderInventoryReserveBatchRequestEvent.Reservation reservation : request.getReservations()) {
+            results.add(new InventoryReserveBatchResponseEvent.ReservationResult(reservation.getOrderId(),
+                    reservation.getQuantity(), true, null));
+        }
+        return CompletableFuture.completedFuture(InventoryReserveBatchResponseEvent.builder()
+                .batchId(request.getBatchId())
+                .productId(request.getProductId())
+                .results(results)
+                .build());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
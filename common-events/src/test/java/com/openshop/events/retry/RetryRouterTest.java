@@ -0,0 +1,125 @@
+package com.openshop.events.retry;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryRouterTest {
+
+    private static final String TOPIC = "order.payment.request";
+    private static final RetrySettings SETTINGS = RetrySettings.builder()
+            .tiers(List.of(Duration.ofSeconds(1), Duration.ofSeconds(10)))
+            .build();
+
+    @Test
+    void firstFailureGoesToTheFirstTier() {
+        MockProducer<String, String> producer = producer();
+        long before = System.currentTimeMillis();
+
+        new RetryRouter<>(producer, SETTINGS).handle(record(TOPIC, new RecordHeaders()), new IllegalStateException("db down"));
+
+        ProducerRecord<String, String> routed = producer.history().get(0);
+        assertEquals(RetryTopics.retryTopic(TOPIC, Duration.ofSeconds(1)), routed.topic());
+        assertEquals("order-1", routed.key());
+        assertEquals("1", header(routed, RetryTopics.ATTEMPT_HEADER));
+        assertEquals(TOPIC, header(routed, RetryTopics.ORIGINAL_TOPIC_HEADER));
+        assertEquals(IllegalStateException.class.getName(), header(routed, RetryTopics.EXCEPTION_HEADER));
+        assertEquals("db down", header(routed, RetryTopics.REASON_HEADER));
+        assertTrue(Long.parseLong(header(routed, RetryTopics.DUE_AT_HEADER)) >= before + 1_000);
+    }
+
+    @Test
+    void retriedRecordMovesToTheNextTierAndKeepsItsOriginalTopic() {
+        MockProducer<String, String> producer = producer();
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(RetryTopics.ATTEMPT_HEADER, bytes("1"));
+        headers.add(RetryTopics.ORIGINAL_TOPIC_HEADER, bytes(TOPIC));
+        headers.add(RetryTopics.DUE_AT_HEADER, bytes("0"));
+        headers.add("traceparent", bytes("00-abc-01"));
+
+        new RetryRouter<>(producer, SETTINGS).handle(
+                record(RetryTopics.retryTopic(TOPIC, Duration.ofSeconds(1)), headers), new RuntimeException());
+
+        ProducerRecord<String, String> routed = producer.history().get(0);
+        assertEquals(RetryTopics.retryTopic(TOPIC, Duration.ofSeconds(10)), routed.topic());
+        assertEquals("2", header(routed, RetryTopics.ATTEMPT_HEADER));
+        assertEquals(TOPIC, header(routed, RetryTopics.ORIGINAL_TOPIC_HEADER));
+        assertEquals("RuntimeException", header(routed, RetryTopics.REASON_HEADER));
+        assertEquals("00-abc-01", header(routed, "traceparent"));
+        // Old retry headers are replaced, not accumulated.
+        assertEquals(1, countHeaders(routed, RetryTopics.ATTEMPT_HEADER));
+    }
+
+    @Test
+    void exhaustedRecordIsDeadLettered() {
+        MockProducer<String, String> producer = producer();
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(RetryTopics.ATTEMPT_HEADER, bytes("2"));
+        headers.add(RetryTopics.ORIGINAL_TOPIC_HEADER, bytes(TOPIC));
+        RetryRouter<String> router = new RetryRouter<>(producer, SETTINGS);
+
+        router.handle(record(RetryTopics.retryTopic(TOPIC, Duration.ofSeconds(10)), headers),
+                new IllegalArgumentException("bad payload"));
+
+        ProducerRecord<String, String> routed = producer.history().get(0);
+        assertEquals(RetryTopics.deadLetterTopic(TOPIC), routed.topic());
+        assertEquals("2", header(routed, RetryTopics.ATTEMPT_HEADER));
+        assertEquals("bad payload", header(routed, RetryTopics.REASON_HEADER));
+        assertNull(header(routed, RetryTopics.DUE_AT_HEADER));
+        assertEquals(Map.of(TOPIC, 1L), router.deadLetters());
+        assertEquals(Map.of(), router.retries());
+    }
+
+    @Test
+    void failedRouteIsNotTakenOver() {
+        MockProducer<String, String> producer = new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+        producer.sendException = new KafkaException("broker unavailable");
+        RetryRouter<String> router = new RetryRouter<>(producer, SETTINGS);
+
+        assertThrows(RuntimeException.class,
+                () -> router.handle(record(TOPIC, new RecordHeaders()), new IllegalStateException()));
+        assertEquals(Map.of(), router.retries());
+    }
+
+    private static ConsumerRecord<String, String> record(String topic, RecordHeaders headers) {
+        return new ConsumerRecord<>(topic, 0, 7L, 0L, TimestampType.CREATE_TIME, -1, -1, "order-1", "payload",
+                headers, Optional.empty());
+    }
+
+    private static MockProducer<String, String> producer() {
+        return new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+    }
+
+    private static String header(ProducerRecord<String, String> record, String key) {
+        return RetryRouter.stringHeader(record.headers(), key);
+    }
+
+    private static int countHeaders(ProducerRecord<String, String> record, String key) {
+        int count = 0;
+        for (Header ignored : record.headers().headers(key)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
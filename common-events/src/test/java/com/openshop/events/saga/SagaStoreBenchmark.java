@@ -0,0 +1,89 @@
+package com.openshop.events.saga;
+
+import com.openshop.events.inventory.InventoryReserveResponseEvent;
+import com.openshop.events.order.OrderInventoryReserveRequestEvent;
+import com.openshop.events.order.OrderPaymentRequestEvent;
+import com.openshop.events.order.OrderShippingRequestEvent;
+import com.openshop.events.payment.PaymentResponseEvent;
+import com.openshop.events.shipping.ShippingResponseEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Saga transitions per second through {@link SagaStateStore#apply}: each invocation runs one order
+ * through reserve, payment and shipping, i.e. six transitions ending in eviction.
+ * <p>
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=SagaStoreBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SagaStoreBenchmark {
+
+    private static final int TRANSITIONS = 6;
+
+    @Param({"false", "true"})
+    public boolean forceOnWrite;
+
+    private Path directory;
+    private SagaStateStore store;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("saga-benchmark");
+        store = SagaStateStore.open(directory, SagaStoreSettings.builder().forceOnWrite(forceOnWrite).build(),
+                (state, step, compensations) -> { });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSITIONS)
+    public void sagaLifecycle() {
+        String correlationId = "saga-" + sequence++;
+        UUID orderId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        long now = System.currentTimeMillis();
+        store.apply(new OrderInventoryReserveRequestEvent(orderId, 1L,
+                List.of(new OrderInventoryReserveRequestEvent.InventoryItem(productId, 2)), correlationId, now));
+        store.apply(new InventoryReserveResponseEvent(orderId, 1L, "SUCCESS", null,
+                List.of(new InventoryReserveResponseEvent.ReservedItem(productId, 2, true)), correlationId, now));
+        store.apply(new OrderPaymentRequestEvent(orderId, 1L, 59.98, correlationId, now));
+        store.apply(new PaymentResponseEvent(orderId, 1L, "txn", "SUCCESS", 59.98, "CARD", null, correlationId, now));
+        store.apply(new OrderShippingRequestEvent(orderId, 1L, "1 Main St", "Springfield", "IL", "62701", "US",
+                "555-0100", 59.98, correlationId, now));
+        store.apply(new ShippingResponseEvent(orderId, 1L, UUID.randomUUID(), "SUCCESS", "TRK", "UPS", null, null,
+                correlationId, now));
+    }
+}
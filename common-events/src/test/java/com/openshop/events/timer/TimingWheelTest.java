@@ -0,0 +1,77 @@
+package com.openshop.events.timer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    @Test
+    void tasksExpireInDeadlineOrderAndNotEarly() throws Exception {
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        try (TimingWheel wheel = new TimingWheel("test-wheel", Duration.ofMillis(5), 8)) {
+            long started = System.nanoTime();
+            wheel.schedule(() -> { order.add(3); done.countDown(); }, Duration.ofMillis(120));
+            wheel.schedule(() -> { order.add(1); done.countDown(); }, Duration.ofMillis(20));
+            // Longer than one revolution of 8 x 5 ms, so it has to wait out its remaining rounds.
+            wheel.schedule(() -> { order.add(2); done.countDown(); }, Duration.ofMillis(70));
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) >= 120);
+            assertEquals(List.of(1, 2, 3), order);
+            assertEquals(0, wheel.pending());
+        }
+    }
+
+    @Test
+    void cancelledTaskNeverRuns() throws Exception {
+        AtomicBoolean ran = new AtomicBoolean();
+        CountDownLatch later = new CountDownLatch(1);
+        try (TimingWheel wheel = new TimingWheel("test-wheel", Duration.ofMillis(5), 8)) {
+            TimingWheel.Timeout timeout = wheel.schedule(() -> ran.set(true), Duration.ofMillis(30));
+            wheel.schedule(later::countDown, Duration.ofMillis(80));
+            assertEquals(2, wheel.pending());
+
+            assertTrue(timeout.cancel());
+            assertFalse(timeout.cancel());
+            assertEquals(1, wheel.pending());
+
+            assertTrue(later.await(5, TimeUnit.SECONDS));
+            assertFalse(ran.get());
+            assertEquals(0, wheel.pending());
+        }
+    }
+
+    @Test
+    void expiredTaskCannotBeCancelled() throws Exception {
+        CountDownLatch ran = new CountDownLatch(1);
+        try (TimingWheel wheel = new TimingWheel("test-wheel", Duration.ofMillis(5), 8)) {
+            TimingWheel.Timeout timeout = wheel.schedule(ran::countDown, Duration.ZERO);
+
+            assertTrue(ran.await(5, TimeUnit.SECONDS));
+            assertFalse(timeout.cancel());
+            assertEquals(0, wheel.pending());
+        }
+    }
+
+    @Test
+    void failingTaskDoesNotStopTheWheel() throws Exception {
+        CountDownLatch after = new CountDownLatch(1);
+        try (TimingWheel wheel = new TimingWheel("test-wheel", Duration.ofMillis(5), 8)) {
+            wheel.schedule(() -> { throw new IllegalStateException("task failed"); }, Duration.ofMillis(10));
+            wheel.schedule(after::countDown, Duration.ofMillis(30));
+
+            assertTrue(after.await(5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.openshop.events.outbox;
+
+import lombok.Value;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Relay throughput and lag counters of an {@link OutboxRelay}.
+ */
+public class OutboxMetrics {
+
+    private final LongAdder relayed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final LongAdder cleanedUp = new LongAdder();
+    private final AtomicLong lastRelayLagMillis = new AtomicLong();
+    private final AtomicLong maxRelayLagMillis = new AtomicLong();
+    private volatile long pendingRows;
+    private volatile long oldestPendingAgeMillis;
+
+    void recordBatch(int rows, long lagMillis) {
+        relayed.add(rows);
+        batches.increment();
+        lastRelayLagMillis.set(lagMillis);
+        maxRelayLagMillis.accumulateAndGet(lagMillis, Math::max);
+    }
+
+    void recordFailure() {
+        failedBatches.increment();
+    }
+
+    void recordCleanup(int rows) {
+        cleanedUp.add(rows);
+    }
+
+    void recordBacklog(long rows, long oldestAgeMillis) {
+        pendingRows = rows;
+        oldestPendingAgeMillis = oldestAgeMillis;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(relayed.sum(), batches.sum(), failedBatches.sum(), cleanedUp.sum(),
+                lastRelayLagMillis.get(), maxRelayLagMillis.get(), pendingRows, oldestPendingAgeMillis);
+    }
+
+    @Value
+    public static class Snapshot {
+        long relayed;
+        long batches;
+        long failedBatches;
+        long cleanedUp;
+        /** Age of the oldest row of the most recent batch when it was acknowledged by Kafka. */
+        long lastRelayLagMillis;
+        long maxRelayLagMillis;
+        /** Unrelayed rows and the age of the oldest one, refreshed on every cleanup run. */
+        long pendingRows;
+        long oldestPendingAgeMillis;
+    }
+}
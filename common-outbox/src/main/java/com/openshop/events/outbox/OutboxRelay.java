@@ -0,0 +1,265 @@
+package com.openshop.events.outbox;
+
+import com.openshop.events.codec.EventCodecs;
+import com.openshop.events.codec.EventSerializer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes committed outbox rows to Kafka.
+ * <p>
+ * Each worker repeatedly claims up to {@link OutboxSettings#getBatchSize()} unrelayed rows of its shards
+ * with a single {@code SELECT ... FOR UPDATE SKIP LOCKED}, sends them, waits for the acknowledgements
+ * and marks (or deletes) the whole batch with one statement before committing. A failed send rolls the
+ * transaction back and the rows are retried, so delivery is at-least-once.
+ * <p>
+ * All rows of one key share a shard, and a worker first locks its shards' rows in the shard table, so
+ * each shard is relayed by one transaction at a time across all instances. Rows of a key therefore
+ * reach Kafka in id order even with several instances; a worker whose shards are all held by another
+ * instance finds nothing to claim and polls again.
+ */
+public class OutboxRelay implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Producer<String, byte[]> producer;
+    private final OutboxSettings settings;
+    private final OutboxMetrics metrics = new OutboxMetrics();
+    private final int[][] workerShards;
+    private ExecutorService workers;
+    private ScheduledExecutorService cleaner;
+    private volatile boolean running;
+
+    public OutboxRelay(DataSource dataSource, Producer<String, byte[]> producer, OutboxSettings settings) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.producer = producer;
+        this.settings = settings;
+        this.workerShards = new int[settings.getWorkers()][];
+        for (int worker = 0; worker < settings.getWorkers(); worker++) {
+            List<Integer> shards = new ArrayList<>();
+            for (int shard = worker; shard < OutboxWriter.SHARDS; shard += settings.getWorkers()) {
+                shards.add(shard);
+            }
+            workerShards[worker] = shards.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        workers = Executors.newFixedThreadPool(settings.getWorkers(), r -> new Thread(r, "outbox-relay"));
+        for (int worker = 0; worker < settings.getWorkers(); worker++) {
+            if (workerShards[worker].length == 0) {
+                continue;
+            }
+            int index = worker;
+            workers.execute(() -> relayLoop(index));
+        }
+        cleaner = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "outbox-cleanup"));
+        long interval = settings.getCleanupInterval().toMillis();
+        cleaner.scheduleWithFixedDelay(this::cleanupQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (workers != null) {
+            workers.shutdown();
+            cleaner.shutdownNow();
+            try {
+                workers.awaitTermination(settings.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public OutboxMetrics.Snapshot metrics() {
+        return metrics.snapshot();
+    }
+
+    /**
+     * Claims and relays one batch for a worker. Workers beyond {@code OutboxWriter.SHARDS} own no shard.
+     *
+     * @return the number of rows relayed
+     */
+    public int relayOnce(int worker) {
+        if (workerShards[worker].length == 0) {
+            return 0;
+        }
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<Object> args = lockShards(workerShards[worker]);
+            if (args.isEmpty()) {
+                return 0;
+            }
+            // Shards are listed explicitly so the claim can use the partial (shard, id) index.
+            String claimSql = "SELECT id, topic, event_key, event_type, payload, created_at FROM "
+                    + settings.getTableName() + " WHERE relayed_at IS NULL AND shard IN (" + placeholders(args.size())
+                    + ") ORDER BY id LIMIT ? " + settings.getLockClause();
+            args.add(settings.getBatchSize());
+            List<OutboxRow> rows = jdbcTemplate.query(claimSql, (rs, i) -> new OutboxRow(
+                    rs.getLong("id"),
+                    rs.getString("topic"),
+                    rs.getString("event_key"),
+                    rs.getString("event_type"),
+                    rs.getBytes("payload"),
+                    rs.getLong("created_at")), args.toArray());
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            send(rows);
+            markRelayed(rows);
+            long oldest = rows.stream().mapToLong(OutboxRow::createdAt).min().orElse(0);
+            metrics.recordBatch(rows.size(), System.currentTimeMillis() - oldest);
+            return rows.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+
+    /**
+     * Deletes relayed rows older than the retention in chunks and refreshes the backlog metrics.
+     *
+     * @return the number of rows deleted
+     */
+    public int cleanup() {
+        int total = 0;
+        if (!settings.getRetention().isZero()) {
+            String deleteSql = "DELETE FROM " + settings.getTableName() + " WHERE id IN (SELECT id FROM "
+                    + settings.getTableName() + " WHERE relayed_at IS NOT NULL AND relayed_at < ? ORDER BY id LIMIT ?)";
+            long cutoff = System.currentTimeMillis() - settings.getRetention().toMillis();
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(deleteSql, cutoff, settings.getCleanupBatchSize());
+                total += deleted;
+            } while (deleted == settings.getCleanupBatchSize() && !Thread.currentThread().isInterrupted());
+            metrics.recordCleanup(total);
+        }
+        jdbcTemplate.query("SELECT COUNT(*), MIN(created_at) FROM " + settings.getTableName()
+                + " WHERE relayed_at IS NULL", rs -> {
+            long pending = rs.getLong(1);
+            long oldest = rs.getLong(2);
+            metrics.recordBacklog(pending, rs.wasNull() ? 0 : System.currentTimeMillis() - oldest);
+        });
+        return total;
+    }
+
+    private void relayLoop(int worker) {
+        while (running) {
+            try {
+                if (relayOnce(worker) < settings.getBatchSize()) {
+                    TimeUnit.MILLISECONDS.sleep(settings.getPollInterval().toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                metrics.recordFailure();
+                log.warn("Outbox relay worker {} failed, batch will be retried", worker, e);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(settings.getPollInterval().toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void cleanupQuietly() {
+        try {
+            cleanup();
+        } catch (RuntimeException e) {
+            log.warn("Outbox cleanup failed", e);
+        }
+    }
+
+    private void send(List<OutboxRow> rows) {
+        List<Future<RecordMetadata>> acks = new ArrayList<>(rows.size());
+        for (OutboxRow row : rows) {
+            ProducerRecord<String, byte[]> record = new ProducerRecord<>(row.topic(), row.key(), row.payload());
+            if (!EventCodecs.isBinaryFrame(row.payload())) {
+                record.headers().add(EventSerializer.TYPE_ID_HEADER, row.eventType().getBytes(StandardCharsets.UTF_8));
+            }
+            acks.add(producer.send(record));
+        }
+        long deadline = System.nanoTime() + settings.getSendTimeout().toNanos();
+        try {
+            for (Future<RecordMetadata> ack : acks) {
+                ack.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while relaying outbox batch", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to relay outbox batch", e);
+        }
+    }
+
+    /**
+     * Locks the rows of the given shards in the shard table for the current transaction, skipping shards
+     * another instance is relaying right now.
+     *
+     * @return the shards this transaction now owns
+     */
+    private List<Object> lockShards(int[] shards) {
+        Object[] args = new Object[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            args[i] = shards[i];
+        }
+        return new ArrayList<Object>(jdbcTemplate.queryForList("SELECT shard FROM " + settings.getShardTableName()
+                + " WHERE shard IN (" + placeholders(shards.length) + ") ORDER BY shard " + settings.getLockClause(),
+                Integer.class, args));
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private void markRelayed(List<OutboxRow> rows) {
+        String placeholders = placeholders(rows.size());
+        Object[] args;
+        String sql;
+        if (settings.getRetention().isZero()) {
+            sql = "DELETE FROM " + settings.getTableName() + " WHERE id IN (" + placeholders + ")";
+            args = new Object[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                args[i] = rows.get(i).id();
+            }
+        } else {
+            sql = "UPDATE " + settings.getTableName() + " SET relayed_at = ? WHERE id IN (" + placeholders + ")";
+            args = new Object[rows.size() + 1];
+            args[0] = System.currentTimeMillis();
+            for (int i = 0; i < rows.size(); i++) {
+                args[i + 1] = rows.get(i).id();
+            }
+        }
+        jdbcTemplate.update(sql, args);
+    }
+
+    private record OutboxRow(long id, String topic, String key, String eventType, byte[] payload, long createdAt) {
+    }
+}
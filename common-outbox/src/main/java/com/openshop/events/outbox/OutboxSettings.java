@@ -0,0 +1,45 @@
+package com.openshop.events.outbox;
+
+import com.openshop.events.codec.EventFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxSettings {
+    @Builder.Default
+    private String tableName = "event_outbox";
+    /** One row per shard, locked by the relay transaction that owns the shard. */
+    @Builder.Default
+    private String shardTableName = "event_outbox_shard";
+    /** Wire format of the stored payload; use JSON while consumers still run the Spring JsonDeserializer. */
+    @Builder.Default
+    private EventFormat format = EventFormat.BINARY;
+    /** Parallel relay workers per service instance. Each owns a disjoint set of shards. */
+    @Builder.Default
+    private int workers = 4;
+    /** Rows claimed and sent per relay transaction. */
+    @Builder.Default
+    private int batchSize = 500;
+    /** Pause of a worker after it found less than a full batch. */
+    @Builder.Default
+    private Duration pollInterval = Duration.ofMillis(100);
+    @Builder.Default
+    private Duration sendTimeout = Duration.ofSeconds(30);
+    /** Row lock clause of the claim query. Databases without SKIP LOCKED can fall back to {@code FOR UPDATE}. */
+    @Builder.Default
+    private String lockClause = "FOR UPDATE SKIP LOCKED";
+    /** How long relayed rows are kept. {@link Duration#ZERO} deletes them in the relay transaction. */
+    @Builder.Default
+    private Duration retention = Duration.ofHours(1);
+    @Builder.Default
+    private Duration cleanupInterval = Duration.ofMinutes(1);
+    @Builder.Default
+    private int cleanupBatchSize = 10_000;
+}
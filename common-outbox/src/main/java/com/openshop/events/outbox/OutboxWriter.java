@@ -0,0 +1,48 @@
+package com.openshop.events.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openshop.events.codec.EventSerializer;
+import com.openshop.events.topic.EventTopic;
+import com.openshop.events.topic.OrderKeyPartitioner;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Stores events in the outbox table instead of sending them to Kafka.
+ * <p>
+ * Call it inside the business transaction: {@link JdbcTemplate} joins the surrounding Spring
+ * transaction, so the event row commits or rolls back together with the state change that produced it.
+ * {@link OutboxRelay} publishes committed rows afterwards.
+ */
+public class OutboxWriter {
+
+    /** Fixed number of shards rows are spread over; relay workers split the shards between them. */
+    static final int SHARDS = 64;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EventSerializer<Object> serializer;
+    private final String insertSql;
+
+    public OutboxWriter(JdbcTemplate jdbcTemplate, OutboxSettings settings) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.serializer = new EventSerializer<>(settings.getFormat(), new ObjectMapper());
+        this.insertSql = "INSERT INTO " + settings.getTableName()
+                + " (topic, event_key, event_type, shard, payload, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+    }
+
+    public <T> void write(EventTopic<T> topic, T event) {
+        write(topic.getName(), topic.key(event), event);
+    }
+
+    public void write(String topic, String key, Object event) {
+        byte[] payload = serializer.serialize(topic, event);
+        jdbcTemplate.update(insertSql, topic, key, event.getClass().getName(), shardOf(key), payload,
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Shard of a record key. All events of one order share a shard and are relayed by the same worker.
+     */
+    static int shardOf(String key) {
+        return key == null ? 0 : OrderKeyPartitioner.partitionFor(key, SHARDS);
+    }
+}
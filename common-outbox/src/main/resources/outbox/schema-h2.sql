@@ -0,0 +1,18 @@
+CREATE TABLE IF NOT EXISTS event_outbox (
+    id          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    topic       VARCHAR(255) NOT NULL,
+    event_key   VARCHAR(255),
+    event_type  VARCHAR(255) NOT NULL,
+    shard       SMALLINT     NOT NULL,
+    payload     VARBINARY    NOT NULL,
+    created_at  BIGINT       NOT NULL,
+    relayed_at  BIGINT
+);
+
+CREATE INDEX IF NOT EXISTS idx_event_outbox_pending ON event_outbox (relayed_at, shard, id);
+
+-- One row per shard (OutboxWriter.SHARDS), locked by the relay transaction that relays the shard.
+CREATE TABLE IF NOT EXISTS event_outbox_shard (
+    shard       SMALLINT     PRIMARY KEY
+);
+MERGE INTO event_outbox_shard (shard) KEY (shard) SELECT X FROM SYSTEM_RANGE(0, 63);
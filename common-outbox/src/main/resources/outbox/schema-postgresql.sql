@@ -0,0 +1,20 @@
+CREATE TABLE IF NOT EXISTS event_outbox (
+    id          BIGSERIAL PRIMARY KEY,
+    topic       VARCHAR(255) NOT NULL,
+    event_key   VARCHAR(255),
+    event_type  VARCHAR(255) NOT NULL,
+    shard       SMALLINT     NOT NULL,
+    payload     BYTEA        NOT NULL,
+    created_at  BIGINT       NOT NULL,
+    relayed_at  BIGINT
+);
+
+-- Relay workers only ever scan unrelayed rows of their shard in id order.
+CREATE INDEX IF NOT EXISTS idx_event_outbox_pending ON event_outbox (shard, id) WHERE relayed_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_event_outbox_relayed ON event_outbox (relayed_at) WHERE relayed_at IS NOT NULL;
+
+-- One row per shard (OutboxWriter.SHARDS), locked by the relay transaction that relays the shard.
+CREATE TABLE IF NOT EXISTS event_outbox_shard (
+    shard       SMALLINT     PRIMARY KEY
+);
+INSERT INTO event_outbox_shard (shard) SELECT generate_series(0, 63) ON CONFLICT DO NOTHING;
@@ -0,0 +1,202 @@
+package com.openshop.events.outbox;
+
+import com.openshop.events.codec.EventCodecs;
+import com.openshop.events.constants.KafkaTopics;
+import com.openshop.events.order.OrderPaymentRequestEvent;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboxRelayTest {
+
+    private static final String TOPIC = KafkaTopics.ORDER_PAYMENT_REQUEST;
+
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createSchema() throws IOException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        try (InputStream schema = OutboxRelay.class.getResourceAsStream("/outbox/schema-h2.sql")) {
+            for (String statement : new String(schema.readAllBytes(), StandardCharsets.UTF_8).split(";")) {
+                String sql = statement.lines().filter(line -> !line.trim().startsWith("--"))
+                        .reduce("", (a, b) -> a + "\n" + b).trim();
+                if (!sql.isEmpty()) {
+                    jdbcTemplate.execute(sql);
+                }
+            }
+        }
+    }
+
+    @Test
+    void twoWorkersRelayDisjointShards() {
+        OutboxSettings settings = OutboxSettings.builder().workers(2).build();
+        List<UUID> orders = writeOrders(settings, 100);
+        MockProducer<String, byte[]> producer = producer();
+        OutboxRelay relay = new OutboxRelay(dataSource, producer, settings);
+
+        int even = relay.relayOnce(0);
+        long expectedEven = orders.stream().filter(id -> OutboxWriter.shardOf(id.toString()) % 2 == 0).count();
+        assertEquals(expectedEven, even);
+        assertTrue(producer.history().stream()
+                .allMatch(record -> OutboxWriter.shardOf(record.key()) % 2 == 0));
+
+        assertEquals(100 - expectedEven, relay.relayOnce(1));
+        assertEquals(0, relay.relayOnce(0) + relay.relayOnce(1));
+        assertEquals(100, producer.history().size());
+        assertEquals(0, unrelayed());
+    }
+
+    @Test
+    void rowsOfOneKeyAreRelayedInWriteOrder() {
+        OutboxSettings settings = OutboxSettings.builder().workers(1).batchSize(3).build();
+        OutboxWriter writer = new OutboxWriter(jdbcTemplate, settings);
+        UUID orderId = UUID.randomUUID();
+        for (int i = 0; i < 10; i++) {
+            writer.write(TOPIC, orderId.toString(), new OrderPaymentRequestEvent(orderId, 1L, i + 0.5, "c", (long) i));
+        }
+        MockProducer<String, byte[]> producer = producer();
+        OutboxRelay relay = new OutboxRelay(dataSource, producer, settings);
+
+        while (relay.relayOnce(0) > 0) {
+            // drain
+        }
+
+        List<Long> timestamps = new ArrayList<>();
+        for (ProducerRecord<String, byte[]> record : producer.history()) {
+            timestamps.add(((OrderPaymentRequestEvent) EventCodecs.decode(record.value())).getTimestamp());
+        }
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), timestamps);
+    }
+
+    @Test
+    void shardHeldByAnotherInstanceIsSkipped() throws Exception {
+        OutboxSettings settings = OutboxSettings.builder().workers(1).build();
+        List<UUID> orders = writeOrders(settings, 50);
+        int heldShard = OutboxWriter.shardOf(orders.get(0).toString());
+        long heldRows = orders.stream().filter(id -> OutboxWriter.shardOf(id.toString()) == heldShard).count();
+        OutboxRelay relay = new OutboxRelay(dataSource, producer(), settings);
+
+        try (Connection otherInstance = dataSource.getConnection()) {
+            otherInstance.setAutoCommit(false);
+            try (PreparedStatement lock = otherInstance.prepareStatement(
+                    "SELECT shard FROM event_outbox_shard WHERE shard = ? FOR UPDATE")) {
+                lock.setInt(1, heldShard);
+                lock.executeQuery().close();
+            }
+
+            assertEquals(50 - heldRows, relay.relayOnce(0));
+            assertEquals(heldRows, unrelayed());
+            otherInstance.rollback();
+        }
+
+        assertEquals(heldRows, relay.relayOnce(0));
+    }
+
+    @Test
+    void failedSendRollsTheBatchBack() throws Exception {
+        OutboxSettings settings = OutboxSettings.builder().workers(1).build();
+        writeOrders(settings, 1);
+        MockProducer<String, byte[]> failing = new MockProducer<>(false, new StringSerializer(), new ByteArraySerializer());
+        OutboxRelay relay = new OutboxRelay(dataSource, failing, settings);
+
+        CompletableFuture<Integer> attempt = CompletableFuture.supplyAsync(() -> relay.relayOnce(0));
+        while (failing.history().isEmpty()) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+        failing.errorNext(new KafkaException("broker unavailable"));
+
+        Exception thrown = assertThrows(Exception.class, () -> attempt.get(5, TimeUnit.SECONDS));
+        assertTrue(thrown.getCause() instanceof IllegalStateException);
+        assertEquals(1, unrelayed());
+
+        assertEquals(1, new OutboxRelay(dataSource, producer(), settings).relayOnce(0));
+        assertEquals(0, unrelayed());
+    }
+
+    @Test
+    void zeroRetentionDeletesRelayedRows() {
+        OutboxSettings settings = OutboxSettings.builder().workers(1).retention(Duration.ZERO).build();
+        writeOrders(settings, 5);
+
+        assertEquals(5, new OutboxRelay(dataSource, producer(), settings).relayOnce(0));
+
+        assertEquals(0, count("SELECT COUNT(*) FROM event_outbox"));
+    }
+
+    @Test
+    void retainedRowsAreMarkedRelayed() {
+        OutboxSettings settings = OutboxSettings.builder().workers(1).retention(Duration.ofHours(1)).build();
+        writeOrders(settings, 5);
+        long before = System.currentTimeMillis();
+
+        assertEquals(5, new OutboxRelay(dataSource, producer(), settings).relayOnce(0));
+
+        assertEquals(5, count("SELECT COUNT(*) FROM event_outbox WHERE relayed_at >= " + before));
+    }
+
+    @Test
+    void cleanupDeletesExpiredRowsInChunks() throws Exception {
+        OutboxSettings relaySettings = OutboxSettings.builder().workers(1).build();
+        writeOrders(relaySettings, 10);
+        new OutboxRelay(dataSource, producer(), relaySettings).relayOnce(0);
+        writeOrders(relaySettings, 2);
+        TimeUnit.MILLISECONDS.sleep(20);
+
+        OutboxSettings cleanupSettings = OutboxSettings.builder().workers(1)
+                .retention(Duration.ofMillis(10)).cleanupBatchSize(3).build();
+        OutboxRelay cleaner = new OutboxRelay(dataSource, producer(), cleanupSettings);
+
+        assertEquals(10, cleaner.cleanup());
+        assertEquals(2, count("SELECT COUNT(*) FROM event_outbox"));
+        assertEquals(10, cleaner.metrics().getCleanedUp());
+        assertEquals(2, cleaner.metrics().getPendingRows());
+    }
+
+    private List<UUID> writeOrders(OutboxSettings settings, int count) {
+        OutboxWriter writer = new OutboxWriter(jdbcTemplate, settings);
+        List<UUID> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UUID orderId = UUID.randomUUID();
+            writer.write(TOPIC, orderId.toString(), new OrderPaymentRequestEvent(orderId, 1L, 9.99, "c", 1L));
+            orders.add(orderId);
+        }
+        return orders;
+    }
+
+    private long unrelayed() {
+        return count("SELECT COUNT(*) FROM event_outbox WHERE relayed_at IS NULL");
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private static MockProducer<String, byte[]> producer() {
+        return new MockProducer<>(true, new StringSerializer(), new ByteArraySerializer());
+    }
+}
@@ -151,37 +151,39 @@ if [[ "$START_STEP" == "build" || "$START_STEP" == "all" ]]; then
     print_step "Building all microservices and UI..."
     echo ""
 
-    # First, build common-events module (required by other services)
-    print_info "Building common-events (shared module)..."
-    cd common-events
-    
-    print_status "Running Maven build for common-events..."
-    # common-events doesn't have mvnw, use mvn directly
-    if command -v mvn &> /dev/null; then
-        BUILD_OUTPUT=$(mktemp)
-        if mvn clean install -DskipTests > "$BUILD_OUTPUT" 2>&1; then
-            print_info "  ✓ Maven build successful"
-            rm "$BUILD_OUTPUT"
+    # First, build the shared modules (required by other services)
+    for module in common-events common-outbox; do
+        print_info "Building $module (shared module)..."
+        cd $module
+
+        print_status "Running Maven build for $module..."
+        # Shared modules don't have mvnw, use mvn directly
+        if command -v mvn &> /dev/null; then
+            BUILD_OUTPUT=$(mktemp)
+            if mvn clean install -DskipTests > "$BUILD_OUTPUT" 2>&1; then
+                print_info "  ✓ Maven build successful"
+                rm "$BUILD_OUTPUT"
+            else
+                print_error "  ✗ Maven build failed for $module"
+                echo ""
+                print_warn "Build output:"
+                echo "----------------------------------------"
+                cat "$BUILD_OUTPUT"
+                echo "----------------------------------------"
+                rm "$BUILD_OUTPUT"
+                exit 1
+            fi
         else
-            print_error "  ✗ Maven build failed for common-events"
-            echo ""
-            print_warn "Build output:"
-            echo "----------------------------------------"
-            cat "$BUILD_OUTPUT"
-            echo "----------------------------------------"
-            rm "$BUILD_OUTPUT"
+            print_error "  ✗ Maven (mvn) command not found. Please install Maven."
+            print_info "On macOS: brew install maven"
+            print_info "On Ubuntu/Debian: sudo apt-get install maven"
             exit 1
         fi
-    else
-        print_error "  ✗ Maven (mvn) command not found. Please install Maven."
-        print_info "On macOS: brew install maven"
-        print_info "On Ubuntu/Debian: sudo apt-get install maven"
-        exit 1
-    fi
-    
-    cd ..
-    print_info "✓ common-events completed!"
-    echo ""
+
+        cd ..
+        print_info "✓ $module completed!"
+        echo ""
+    done
 
     # Now build the microservices
     services=("userservice" "productservice" "orderservice" "paymentservice" "cartservice" "inventoryservice" "shippingservice" "apigateway")